@@ -0,0 +1,13 @@
+package com.budget.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caffeine caches are configured in application.properties (spring.cache.*)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Assembled BudgetDTOs keyed "year-month"; see BudgetCacheEvictor
+    public static final String BUDGETS = "budgets";
+}
@@ -0,0 +1,10 @@
+package com.budget.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Background jobs; see LedgerService.takeSnapshot
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,18 +1,24 @@
 package com.budget.controller;
 
+import com.budget.dto.ActualsRebuildResultDTO;
 import com.budget.dto.BudgetDTO;
+import com.budget.dto.BudgetRangeSummaryDTO;
 import com.budget.dto.YearlySummaryDTO;
+import com.budget.service.BudgetActualsService;
 import com.budget.service.BudgetService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.YearMonth;
+
 @RestController
 @RequestMapping("/api/budgets")
 @RequiredArgsConstructor
 public class BudgetController {
 
     private final BudgetService budgetService;
+    private final BudgetActualsService budgetActualsService;
 
     @GetMapping("/{year}/{month}")
     public ResponseEntity<BudgetDTO> getBudget(
@@ -33,17 +39,45 @@ public class BudgetController {
         return ResponseEntity.ok(budget);
     }
 
+    // e.g. /api/budgets/summary?from=2021-01&to=2025-12&breakdown=section
+    @GetMapping("/summary")
+    public ResponseEntity<BudgetRangeSummaryDTO> getRangeSummary(
+            @RequestParam YearMonth from,
+            @RequestParam YearMonth to,
+            @RequestParam(required = false) String breakdown) {
+        BudgetRangeSummaryDTO summary = budgetService.getRangeSummary(from, to, breakdown);
+        return ResponseEntity.ok(summary);
+    }
+
     @GetMapping("/{year}")
     public ResponseEntity<YearlySummaryDTO> getYearlySummary(@PathVariable Integer year) {
         YearlySummaryDTO summary = budgetService.getYearlySummary(year);
         return ResponseEntity.ok(summary);
     }
 
+    // Recomputes the monthly actuals rollup from raw transactions and verifies it
+    @PostMapping("/actuals/rebuild")
+    public ResponseEntity<ActualsRebuildResultDTO> rebuildActuals() {
+        ActualsRebuildResultDTO result = budgetActualsService.rebuild();
+        return ResponseEntity.ok(result);
+    }
+
+    // copyFrom=YYYY-MM clones that month's sections, items and plans instead of the defaults
     @PostMapping
     public ResponseEntity<BudgetDTO> createBudget(
             @RequestParam Integer year,
-            @RequestParam Integer month) {
-        BudgetDTO budget = budgetService.createBudget(year, month);
+            @RequestParam Integer month,
+            @RequestParam(required = false) YearMonth copyFrom) {
+        BudgetDTO budget = budgetService.createBudget(year, month, copyFrom);
         return ResponseEntity.ok(budget);
     }
+
+    // Creates all missing months of a year in one transaction
+    @PostMapping("/{year}")
+    public ResponseEntity<YearlySummaryDTO> createYear(
+            @PathVariable Integer year,
+            @RequestParam(required = false) YearMonth copyFrom) {
+        YearlySummaryDTO summary = budgetService.createYear(year, copyFrom);
+        return ResponseEntity.ok(summary);
+    }
 }
@@ -0,0 +1,35 @@
+package com.budget.controller;
+
+import com.budget.dto.LedgerVerificationDTO;
+import com.budget.model.LedgerAccountType;
+import com.budget.service.LedgerService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/savings/ledger")
+@RequiredArgsConstructor
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+
+    // ref is the account or fund id; omit it for EXTERNAL, POOL and UNALLOCATED
+    @GetMapping("/balance")
+    public Map<String, BigDecimal> getBalance(@RequestParam LedgerAccountType type,
+                                              @RequestParam(required = false) Long ref) {
+        return Map.of("balance", ledgerService.getBalance(type, ref));
+    }
+
+    @PostMapping("/snapshots")
+    public Map<String, Integer> takeSnapshot() {
+        return Map.of("accounts", ledgerService.takeSnapshot());
+    }
+
+    @PostMapping("/verify")
+    public LedgerVerificationDTO verify() {
+        return ledgerService.verify();
+    }
+}
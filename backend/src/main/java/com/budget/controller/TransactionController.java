@@ -1,20 +1,34 @@
 package com.budget.controller;
 
+import com.budget.dto.BulkRecategorizeRequest;
 import com.budget.dto.CreateTransactionRequest;
+import com.budget.dto.CsvImportOptions;
 import com.budget.dto.CsvImportRequest;
+import com.budget.dto.CsvImportResultDTO;
+import com.budget.dto.ImportJobDTO;
+import com.budget.dto.TransactionCursorPageDTO;
 import com.budget.dto.TransactionDTO;
+import com.budget.dto.TransactionFilter;
+import com.budget.dto.TransactionSliceDTO;
 import com.budget.dto.UpdateTransactionRequest;
-import com.budget.model.TransactionType;
+import com.budget.model.CountMode;
+import com.budget.service.ImportJobService;
+import com.budget.service.TransactionExportService;
 import com.budget.service.TransactionService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.time.LocalDate;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -22,25 +36,51 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final ImportJobService importJobService;
+    private final TransactionExportService transactionExportService;
 
+    // Offset paging by default; pass keyset=true (first page) or a cursor to page by (date, id).
+    // count=NONE or count=ESTIMATE skips the exact COUNT(*) behind totalElements.
     @GetMapping
-    public ResponseEntity<Page<TransactionDTO>> getTransactions(
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(required = false) TransactionType type,
-            @RequestParam(required = false) Long sectionId,
-            @RequestParam(required = false) Long budgetItemId,
-            @RequestParam(required = false) String sectionName,
-            @RequestParam(required = false) String budgetItemName,
-            @RequestParam(required = false) String merchant,
+    public ResponseEntity<?> getTransactions(
+            TransactionFilter filter,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean keyset,
+            @RequestParam(defaultValue = "EXACT") CountMode count) {
 
-        Page<TransactionDTO> transactions = transactionService.getTransactions(
-            startDate, endDate, type, sectionId, budgetItemId, sectionName, budgetItemName, merchant, page, size);
+        if (keyset || cursor != null) {
+            TransactionCursorPageDTO cursorPage = transactionService.getTransactionsAfterCursor(filter, cursor, size);
+            return ResponseEntity.ok(cursorPage);
+        }
+
+        if (count != CountMode.EXACT) {
+            TransactionSliceDTO slice = transactionService.getTransactionSlice(filter, page, size, count);
+            return ResponseEntity.ok(slice);
+        }
+
+        Page<TransactionDTO> transactions = transactionService.getTransactions(filter, page, size);
         return ResponseEntity.ok(transactions);
     }
 
+    // Streams every matching row; format=csv (default) or ndjson
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            TransactionFilter filter,
+            @RequestParam(defaultValue = TransactionExportService.CSV) String format) {
+        String exportFormat = TransactionExportService.normalizeFormat(format);
+        MediaType contentType = TransactionExportService.NDJSON.equals(exportFormat)
+            ? MediaType.parseMediaType("application/x-ndjson")
+            : MediaType.parseMediaType("text/csv");
+
+        StreamingResponseBody body = out -> transactionExportService.export(filter, exportFormat, out);
+        return ResponseEntity.ok()
+            .contentType(contentType)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions." + exportFormat + "\"")
+            .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<TransactionDTO> getTransaction(@PathVariable Long id) {
         TransactionDTO transaction = transactionService.getTransaction(id);
@@ -61,6 +101,12 @@ public class TransactionController {
         return ResponseEntity.ok(transaction);
     }
 
+    @PostMapping("/recategorize")
+    public ResponseEntity<Map<String, Integer>> bulkRecategorize(@RequestBody BulkRecategorizeRequest request) {
+        int updated = transactionService.bulkRecategorize(request);
+        return ResponseEntity.ok(Map.of("updated", updated));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTransaction(@PathVariable Long id) {
         transactionService.deleteTransaction(id);
@@ -68,8 +114,38 @@ public class TransactionController {
     }
 
     @PostMapping("/import")
-    public ResponseEntity<List<TransactionDTO>> importTransactions(@Valid @RequestBody CsvImportRequest request) {
-        List<TransactionDTO> imported = transactionService.importTransactions(request);
-        return ResponseEntity.ok(imported);
+    public ResponseEntity<CsvImportResultDTO> importTransactions(@Valid @RequestBody CsvImportRequest request) {
+        CsvImportResultDTO result = transactionService.importTransactions(request);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/import/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CsvImportResultDTO> importTransactionsStream(
+            @RequestPart("file") MultipartFile file,
+            @Valid @RequestPart("options") CsvImportOptions options) throws IOException {
+        try (InputStream input = file.getInputStream()) {
+            CsvImportResultDTO result = transactionService.importTransactionsStream(input, options);
+            return ResponseEntity.ok(result);
+        }
+    }
+
+    @PostMapping(value = "/import/jobs", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> submitImportJob(
+            @RequestPart("file") MultipartFile file,
+            @Valid @RequestPart("options") CsvImportOptions options) throws IOException {
+        ImportJobDTO job = importJobService.submit(file, options);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobDTO> getImportJob(@PathVariable String jobId) {
+        ImportJobDTO job = importJobService.getJob(jobId);
+        return ResponseEntity.ok(job);
+    }
+
+    @DeleteMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobDTO> cancelImportJob(@PathVariable String jobId) {
+        ImportJobDTO job = importJobService.cancel(jobId);
+        return ResponseEntity.ok(job);
     }
 }
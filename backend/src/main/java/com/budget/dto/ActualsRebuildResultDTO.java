@@ -0,0 +1,15 @@
+package com.budget.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActualsRebuildResultDTO {
+    private int years;
+    private int rowsWritten;
+    private long mismatches; // rollup rows that still disagree with raw transactions; 0 when verified
+    private long elapsedMillis;
+}
@@ -1,13 +1,14 @@
 package com.budget.dto;
 
 import com.budget.model.Budget;
+import com.budget.model.Section;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Data
 @NoArgsConstructor
@@ -28,37 +29,22 @@ public class BudgetDTO {
         dto.setYear(budget.getYear());
         dto.setMonth(budget.getMonth());
         dto.setCreatedAt(budget.getCreatedAt());
-        dto.setSections(budget.getSections().stream()
-                .map(SectionDTO::fromEntity)
-                .collect(Collectors.toList()));
 
-        dto.setTotalPlannedIncome(dto.getSections().stream()
-                .filter(SectionDTO::getIsIncome)
-                .flatMap(s -> s.getItems().stream())
-                .filter(item -> !Boolean.TRUE.equals(item.getIsExcludedFromBudget()))
-                .map(BudgetItemDTO::getPlannedAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-
-        dto.setTotalIncome(dto.getSections().stream()
-                .filter(SectionDTO::getIsIncome)
-                .flatMap(s -> s.getItems().stream())
-                .filter(item -> !Boolean.TRUE.equals(item.getIsExcludedFromBudget()))
-                .map(BudgetItemDTO::getActualAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-
-        dto.setTotalPlannedExpenses(dto.getSections().stream()
-                .filter(s -> !s.getIsIncome())
-                .flatMap(s -> s.getItems().stream())
-                .filter(item -> !Boolean.TRUE.equals(item.getIsExcludedFromBudget()))
-                .map(BudgetItemDTO::getPlannedAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
-
-        dto.setTotalExpenses(dto.getSections().stream()
-                .filter(s -> !s.getIsIncome())
-                .flatMap(s -> s.getItems().stream())
-                .filter(item -> !Boolean.TRUE.equals(item.getIsExcludedFromBudget()))
-                .map(BudgetItemDTO::getActualAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        // Section totals already exclude excluded items, so the budget totals are their sums
+        CentsTotals income = new CentsTotals();
+        CentsTotals expenses = new CentsTotals();
+        List<SectionDTO> sections = new ArrayList<>(budget.getSections().size());
+        for (Section section : budget.getSections()) {
+            CentsTotals sectionTotals = new CentsTotals();
+            sections.add(SectionDTO.fromEntity(section, sectionTotals));
+            (Boolean.TRUE.equals(section.getIsIncome()) ? income : expenses).add(sectionTotals);
+        }
+        dto.setSections(sections);
+
+        dto.setTotalPlannedIncome(income.planned());
+        dto.setTotalIncome(income.actual());
+        dto.setTotalPlannedExpenses(expenses.planned());
+        dto.setTotalExpenses(expenses.actual());
 
         return dto;
     }
@@ -0,0 +1,22 @@
+package com.budget.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BudgetRangeSummaryDTO {
+    private YearMonth from;
+    private YearMonth to;
+    private List<MonthTotalsDTO> months;
+    private BigDecimal totalPlannedIncome;
+    private BigDecimal totalActualIncome;
+    private BigDecimal totalPlannedExpenses;
+    private BigDecimal totalActualExpenses;
+    private BigDecimal totalPlannedSavings;
+    private BigDecimal totalActualSavings;
+}
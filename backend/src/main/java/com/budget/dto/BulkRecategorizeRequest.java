@@ -0,0 +1,14 @@
+package com.budget.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+// Exactly one of ids or filter selects the transactions; sectionId and/or budgetItemId is the target
+@Data
+public class BulkRecategorizeRequest {
+    private List<Long> ids;
+    private TransactionFilter filter;
+    private Long sectionId;
+    private Long budgetItemId;
+}
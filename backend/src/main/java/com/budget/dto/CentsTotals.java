@@ -0,0 +1,48 @@
+package com.budget.dto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Planned/actual running sums in whole cents, so totals are accumulated with plain long
+// arithmetic while the items are mapped instead of re-streaming them per total
+final class CentsTotals {
+
+    private long planned;
+    private long actual;
+    // Largest scale added, which is the scale BigDecimal.add would have produced (0 when empty)
+    private int plannedScale;
+    private int actualScale;
+
+    void add(BigDecimal plannedAmount, BigDecimal actualAmount) {
+        planned += toCents(plannedAmount);
+        actual += toCents(actualAmount);
+        plannedScale = Math.max(plannedScale, plannedAmount.scale());
+        actualScale = Math.max(actualScale, actualAmount.scale());
+    }
+
+    void add(CentsTotals other) {
+        planned += other.planned;
+        actual += other.actual;
+        plannedScale = Math.max(plannedScale, other.plannedScale);
+        actualScale = Math.max(actualScale, other.actualScale);
+    }
+
+    BigDecimal planned() {
+        return toAmount(planned, plannedScale);
+    }
+
+    BigDecimal actual() {
+        return toAmount(actual, actualScale);
+    }
+
+    // Amount columns are numeric(10,2), so this is exact for anything read from the database
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    // Below scale 2 every addend was a whole number of units (or tenths), so dropping the
+    // trailing zeros is exact
+    private static BigDecimal toAmount(long cents, int scale) {
+        return BigDecimal.valueOf(cents, 2).setScale(Math.max(scale, 0), RoundingMode.UNNECESSARY);
+    }
+}
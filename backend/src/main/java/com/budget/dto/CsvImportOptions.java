@@ -0,0 +1,16 @@
+package com.budget.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class CsvImportOptions {
+    @NotNull(message = "Column mapping is required")
+    private Map<String, Integer> columnMapping; // field name -> column index
+
+    private String dateFormat; // e.g., "yyyy-MM-dd", "MM/dd/yyyy"
+
+    private boolean skipFirstRow; // true if first row is header
+}
@@ -0,0 +1,16 @@
+package com.budget.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class CsvImportResultDTO {
+    private long rowsRead;
+    private long imported;
+    private long duplicates;
+    private long skipped;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private long peakHeapBytes;
+}
@@ -0,0 +1,26 @@
+package com.budget.dto;
+
+import com.budget.model.ImportJobStatus;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class ImportJobDTO {
+    private String jobId;
+    private String fileName;
+    private ImportJobStatus status;
+    private long rowsProcessed;
+    private long imported;
+    private long duplicates;
+    private long skipped;
+    private long bytesRead;
+    private long totalBytes;
+    private double rowsPerSecond;
+    private Long etaSeconds;
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,19 @@
+package com.budget.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerVerificationDTO {
+    private long unbalancedEntries;   // entries whose legs do not sum to zero
+    private long snapshotMismatches;  // snapshots that differ from the legs they cover
+    private boolean poolMismatch;     // funds + UNALLOCATED or -EXTERNAL differ from the account total
+    private long elapsedMillis;
+
+    public boolean isConsistent() {
+        return unbalancedEntries == 0 && snapshotMismatches == 0 && !poolMismatch;
+    }
+}
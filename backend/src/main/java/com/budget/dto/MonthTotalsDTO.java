@@ -0,0 +1,22 @@
+package com.budget.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class MonthTotalsDTO {
+    private Integer year;
+    private Integer month;
+    private Long budgetId;
+    private BigDecimal plannedIncome;
+    private BigDecimal actualIncome;
+    private BigDecimal plannedExpenses;
+    private BigDecimal actualExpenses;
+    private BigDecimal plannedSavings;
+    private BigDecimal actualSavings;
+    private List<SectionTotalsDTO> sections; // only with a section breakdown
+}
@@ -18,11 +18,12 @@ public class SavingsAccountDTO {
     private Boolean isActive;
     private LocalDateTime createdAt;
 
-    public static SavingsAccountDTO fromEntity(SavingsAccount account) {
+    // balance comes from the ledger
+    public static SavingsAccountDTO fromEntity(SavingsAccount account, BigDecimal balance) {
         SavingsAccountDTO dto = new SavingsAccountDTO();
         dto.setId(account.getId());
         dto.setName(account.getName());
-        dto.setBalance(account.getBalance());
+        dto.setBalance(balance);
         dto.setAsOfDate(account.getAsOfDate());
         dto.setIsActive(account.getIsActive());
         dto.setCreatedAt(account.getCreatedAt());
@@ -32,16 +32,17 @@ public class SavingsFundDTO {
     private FundStatus status;
     private BigDecimal ytdSpent;
 
-    public static SavingsFundDTO fromEntity(SavingsFund fund) {
-        return fromEntityWithYtd(fund, null);
+    // balance comes from the ledger
+    public static SavingsFundDTO fromEntity(SavingsFund fund, BigDecimal balance) {
+        return fromEntityWithYtd(fund, balance, null);
     }
 
-    public static SavingsFundDTO fromEntityWithYtd(SavingsFund fund, BigDecimal ytdSpent) {
+    public static SavingsFundDTO fromEntityWithYtd(SavingsFund fund, BigDecimal balance, BigDecimal ytdSpent) {
         SavingsFundDTO dto = new SavingsFundDTO();
         dto.setId(fund.getId());
         dto.setName(fund.getName());
         dto.setGoalType(fund.getGoalType());
-        dto.setBalance(fund.getBalance());
+        dto.setBalance(balance);
         dto.setTargetAmount(fund.getTargetAmount());
         dto.setDeadline(fund.getDeadline());
         dto.setCeiling(fund.getCeiling());
@@ -1,12 +1,13 @@
 package com.budget.dto;
 
+import com.budget.model.BudgetItem;
 import com.budget.model.Section;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Data
 @NoArgsConstructor
@@ -20,24 +21,29 @@ public class SectionDTO {
     private BigDecimal totalActual;
 
     public static SectionDTO fromEntity(Section section) {
+        return fromEntity(section, new CentsTotals());
+    }
+
+    // Maps the items and sums the ones that count towards the budget in the same loop;
+    // the section's totals are also left in the caller's accumulator
+    static SectionDTO fromEntity(Section section, CentsTotals totals) {
         SectionDTO dto = new SectionDTO();
         dto.setId(section.getId());
         dto.setName(section.getName());
         dto.setDisplayOrder(section.getDisplayOrder());
         dto.setIsIncome(section.getIsIncome());
-        dto.setItems(section.getItems().stream()
-                .map(BudgetItemDTO::fromEntity)
-                .collect(Collectors.toList()));
-
-        dto.setTotalPlanned(dto.getItems().stream()
-                .filter(item -> !Boolean.TRUE.equals(item.getIsExcludedFromBudget()))
-                .map(BudgetItemDTO::getPlannedAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
 
-        dto.setTotalActual(dto.getItems().stream()
-                .filter(item -> !Boolean.TRUE.equals(item.getIsExcludedFromBudget()))
-                .map(BudgetItemDTO::getActualAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        List<BudgetItemDTO> items = new ArrayList<>(section.getItems().size());
+        for (BudgetItem item : section.getItems()) {
+            BudgetItemDTO itemDto = BudgetItemDTO.fromEntity(item);
+            items.add(itemDto);
+            if (!Boolean.TRUE.equals(itemDto.getIsExcludedFromBudget())) {
+                totals.add(itemDto.getPlannedAmount(), itemDto.getActualAmount());
+            }
+        }
+        dto.setItems(items);
+        dto.setTotalPlanned(totals.planned());
+        dto.setTotalActual(totals.actual());
 
         return dto;
     }
@@ -0,0 +1,16 @@
+package com.budget.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+public class SectionTotalsDTO {
+    private Long sectionId;
+    private String name;
+    private Boolean isIncome;
+    private BigDecimal planned;
+    private BigDecimal actual;
+}
@@ -0,0 +1,17 @@
+package com.budget.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionCursorPageDTO {
+    private List<TransactionDTO> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor; // opaque; pass back as ?cursor= for the next page
+}
@@ -0,0 +1,30 @@
+package com.budget.dto;
+
+import com.budget.model.TransactionType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// Optional filters shared by the transaction list, export and bulk endpoints (bound from query params)
+@Data
+@NoArgsConstructor
+public class TransactionFilter {
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate startDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate endDate;
+
+    private TransactionType type;
+    private Long sectionId;
+    private Long budgetItemId;
+    private String sectionName;
+    private String budgetItemName;
+    private String merchant; // case-insensitive substring
+
+    // Trigram similarity match on merchant instead of substring, ranked by relevance
+    private boolean fuzzyMerchant;
+    private Double merchantSimilarity; // 0..1, defaults to 0.3 (pg_trgm default)
+}
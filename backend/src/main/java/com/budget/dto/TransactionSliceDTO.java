@@ -0,0 +1,19 @@
+package com.budget.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionSliceDTO {
+    private List<TransactionDTO> content;
+    private int number;
+    private int size;
+    private boolean hasNext;
+    private Long totalElements; // null when the count was skipped
+    private boolean totalEstimated;
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import org.hibernate.annotations.OptimisticLock;
 
 import java.math.BigDecimal;
 import java.util.Objects;
@@ -31,6 +32,8 @@ public class BudgetItem {
     @Column(name = "planned_amount", nullable = false, precision = 10, scale = 2)
     private BigDecimal plannedAmount = BigDecimal.ZERO;
 
+    // Overwritten from budget_item_actuals on every budget read, so it must not bump the version
+    @OptimisticLock(excluded = true)
     @Column(name = "actual_amount", nullable = false, precision = 10, scale = 2)
     private BigDecimal actualAmount = BigDecimal.ZERO;
 
@@ -40,6 +43,10 @@ public class BudgetItem {
     @Column(name = "is_excluded_from_budget", nullable = false)
     private Boolean isExcludedFromBudget = false;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     public BudgetItem(String name, BigDecimal plannedAmount, Integer displayOrder) {
         this.name = name;
         this.plannedAmount = plannedAmount;
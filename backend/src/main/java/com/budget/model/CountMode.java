@@ -0,0 +1,9 @@
+package com.budget.model;
+
+// How a transaction page reports its total: EXACT runs COUNT(*), ESTIMATE asks the planner,
+// NONE skips the total and only reports whether another page exists
+public enum CountMode {
+    EXACT,
+    ESTIMATE,
+    NONE
+}
@@ -0,0 +1,15 @@
+package com.budget.model;
+
+// What a ledger leg's account_ref points at. EXTERNAL, POOL and UNALLOCATED are single
+// counter-accounts and always use ref 0.
+//
+// The ledger holds two books. Holdings: savings accounts against EXTERNAL. Allocation: funds and
+// UNALLOCATED against POOL, which mirrors the account total. An account movement posts to both
+// books, so UNALLOCATED is always the account total minus the fund total.
+public enum LedgerAccountType {
+    SAVINGS_ACCOUNT,
+    SAVINGS_FUND,
+    EXTERNAL,     // money entering (negative) or leaving the savings accounts
+    POOL,         // minus the account total, on the allocation side
+    UNALLOCATED   // pool money not assigned to any fund
+}
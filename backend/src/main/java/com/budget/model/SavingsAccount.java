@@ -5,7 +5,6 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -23,8 +22,7 @@ public class SavingsAccount {
     @Column(nullable = false, length = 255)
     private String name;
 
-    @Column(nullable = false, precision = 12, scale = 2)
-    private BigDecimal balance = BigDecimal.ZERO;
+    // Balance lives in the ledger (LedgerService)
 
     @Column(name = "as_of_date")
     private LocalDate asOfDate;
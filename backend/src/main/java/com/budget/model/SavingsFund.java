@@ -29,8 +29,7 @@ public class SavingsFund {
     @Column(name = "goal_type", nullable = false, length = 30)
     private FundGoalType goalType;
 
-    @Column(nullable = false, precision = 12, scale = 2)
-    private BigDecimal balance = BigDecimal.ZERO;
+    // Balance lives in the ledger (LedgerService)
 
     @Column(name = "target_amount", precision = 12, scale = 2)
     private BigDecimal targetAmount;
@@ -18,8 +18,13 @@ import java.util.Objects;
 @AllArgsConstructor
 public class Transaction {
 
+    // Pooled sequence shared with TransactionImportWriter, which reserves id blocks for its
+    // set-wise inserts. Unlike IDENTITY, save() does not INSERT until flush, so code that follows
+    // a save/delete with its own JDBC writes must flush first to keep lock order (see
+    // TransactionService).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_batch_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -51,6 +56,10 @@ public class Transaction {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
+    // Content hash set by CSV import; unique so re-importing overlapping exports is a no-op
+    @Column(name = "import_fingerprint", length = 64)
+    private String importFingerprint;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,96 @@
+package com.budget.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// budget_item_actuals holds the signed transaction sum (income +, expense -) per budget item and
+// calendar month. Every transaction write adjusts it in the same database transaction, so budget
+// reads look up precomputed sums instead of aggregating raw transactions.
+@Repository
+@RequiredArgsConstructor
+public class BudgetItemActualsRepository {
+
+    private static final String ADD_SQL =
+        "INSERT INTO budget_item_actuals (budget_item_id, year, month, amount) VALUES (?, ?, ?, ?) " +
+        "ON CONFLICT (budget_item_id, year, month) " +
+        "DO UPDATE SET amount = budget_item_actuals.amount + EXCLUDED.amount";
+
+    private static final String FIND_BY_MONTH_SQL =
+        "SELECT budget_item_id, amount FROM budget_item_actuals WHERE year = ? AND month = ?";
+
+    private static final String TRANSACTION_YEARS_SQL =
+        "SELECT DISTINCT EXTRACT(YEAR FROM transaction_date)::int AS year FROM transaction " +
+        "UNION SELECT DISTINCT year FROM budget_item_actuals ORDER BY year";
+
+    // SHARE mode blocks transaction writers but not other rebuild workers, so years can be rebuilt
+    // in parallel against a stable snapshot. Writers must touch transaction before the rollup
+    // (TransactionService flushes first); a writer already holding a rollup row lock when it
+    // reached the transaction table would deadlock with a worker deleting that row.
+    private static final String LOCK_TRANSACTIONS_SQL = "LOCK TABLE transaction IN SHARE MODE";
+
+    private static final String DELETE_YEAR_SQL = "DELETE FROM budget_item_actuals WHERE year = ?";
+
+    private static final String REBUILD_YEAR_SQL =
+        "INSERT INTO budget_item_actuals (budget_item_id, year, month, amount) " +
+        "SELECT budget_item_id, ?, EXTRACT(MONTH FROM transaction_date)::int, " +
+        "SUM(CASE WHEN type = 'INCOME' THEN amount ELSE -amount END) " +
+        "FROM transaction " +
+        "WHERE budget_item_id IS NOT NULL AND transaction_date >= ? AND transaction_date < ? " +
+        "GROUP BY budget_item_id, EXTRACT(MONTH FROM transaction_date)";
+
+    // Rollup rows that disagree with a fresh aggregation; zero-sum rows count as absent
+    private static final String COUNT_MISMATCHES_SQL =
+        "SELECT COUNT(*) FROM (" +
+        "  SELECT budget_item_id, EXTRACT(YEAR FROM transaction_date)::int AS year, " +
+        "         EXTRACT(MONTH FROM transaction_date)::int AS month, " +
+        "         SUM(CASE WHEN type = 'INCOME' THEN amount ELSE -amount END) AS amount " +
+        "  FROM transaction WHERE budget_item_id IS NOT NULL " +
+        "  GROUP BY 1, 2, 3" +
+        ") fresh " +
+        "FULL OUTER JOIN budget_item_actuals a " +
+        "  ON a.budget_item_id = fresh.budget_item_id AND a.year = fresh.year AND a.month = fresh.month " +
+        "WHERE COALESCE(a.amount, 0) <> COALESCE(fresh.amount, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // signedAmount: positive for income, negative for expense; pass the negation to remove a transaction
+    public void add(Long budgetItemId, LocalDate date, BigDecimal signedAmount) {
+        if (budgetItemId == null || signedAmount.signum() == 0) {
+            return;
+        }
+        jdbcTemplate.update(ADD_SQL, budgetItemId, date.getYear(), date.getMonthValue(), signedAmount);
+    }
+
+    public Map<Long, BigDecimal> findAmountsByYearAndMonth(int year, int month) {
+        Map<Long, BigDecimal> amounts = new HashMap<>();
+        jdbcTemplate.query(FIND_BY_MONTH_SQL,
+            rs -> {
+                amounts.put(rs.getLong("budget_item_id"), rs.getBigDecimal("amount"));
+            },
+            year, month);
+        return amounts;
+    }
+
+    public List<Integer> findYears() {
+        return jdbcTemplate.queryForList(TRANSACTION_YEARS_SQL, Integer.class);
+    }
+
+    // Recomputes one year from raw transactions; run inside a transaction
+    public int rebuildYear(int year) {
+        jdbcTemplate.execute(LOCK_TRANSACTIONS_SQL);
+        jdbcTemplate.update(DELETE_YEAR_SQL, year);
+        return jdbcTemplate.update(REBUILD_YEAR_SQL, year, LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1));
+    }
+
+    public long countMismatches() {
+        Long mismatches = jdbcTemplate.queryForObject(COUNT_MISMATCHES_SQL, Long.class);
+        return mismatches != null ? mismatches : 0;
+    }
+}
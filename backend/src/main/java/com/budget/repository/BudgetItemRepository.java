@@ -1,17 +1,29 @@
 package com.budget.repository;
 
 import com.budget.model.BudgetItem;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BudgetItemRepository extends JpaRepository<BudgetItem, Long> {
 
     List<BudgetItem> findBySectionIdOrderByDisplayOrderAsc(Long sectionId);
 
+    List<BudgetItem> findBySectionBudgetIdOrderByDisplayOrderAsc(Long budgetId);
+
     @Query("SELECT COALESCE(MAX(i.displayOrder), 0) FROM BudgetItem i WHERE i.section.id = :sectionId")
     Integer findMaxDisplayOrderBySectionId(Long sectionId);
+
+    // Bumps the version at commit even if nothing on the item changed, so two writers that both
+    // derive the item from other rows (a plan's items) always conflict
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT i FROM BudgetItem i WHERE i.id = :id")
+    Optional<BudgetItem> findByIdForVersionedUpdate(@Param("id") Long id);
 }
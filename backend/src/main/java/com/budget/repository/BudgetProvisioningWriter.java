@@ -0,0 +1,113 @@
+package com.budget.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+// Creates budget months set-wise. The budget row is claimed with INSERT ... ON CONFLICT DO NOTHING,
+// so concurrent first loads of a month never fail on uk_budget_year_month: exactly one caller gets
+// the new id and fills in the layout, the others see the committed budget on their next read.
+@Repository
+@RequiredArgsConstructor
+public class BudgetProvisioningWriter {
+
+    private static final String INSERT_BUDGET_SQL =
+        "INSERT INTO budget (year, month, created_at) VALUES (?, ?, LOCALTIMESTAMP) " +
+        "ON CONFLICT (year, month) DO NOTHING RETURNING id";
+
+    // Sections and their items in one statement; items find their section by display order
+    private static final String INSERT_LAYOUT_SQL =
+        "WITH s AS (" +
+        "INSERT INTO section (budget_id, name, display_order, is_income) " +
+        "SELECT ?, u.name, u.display_order, u.is_income " +
+        "FROM unnest(?::varchar[], ?::int[], ?::boolean[]) AS u(name, display_order, is_income) " +
+        "RETURNING id, display_order" +
+        ") " +
+        "INSERT INTO budget_item (section_id, name, planned_amount, actual_amount, display_order, is_excluded_from_budget) " +
+        "SELECT s.id, i.name, 0, 0, i.display_order, false " +
+        "FROM unnest(?::int[], ?::varchar[], ?::int[]) AS i(section_order, name, display_order) " +
+        "JOIN s ON s.display_order = i.section_order";
+
+    // Copies a month's sections, items (planned amounts and exclusion flags, actuals reset) and
+    // plans with their plan items. New ids are drawn up front in materialized CTEs so every copied
+    // row knows its new parent id without relying on RETURNING order or display_order uniqueness.
+    private static final String COPY_LAYOUT_SQL =
+        "WITH section_map AS MATERIALIZED (" +
+        "  SELECT s.id AS old_id, nextval(pg_get_serial_sequence('section', 'id')) AS new_id, " +
+        "  s.name, s.display_order, s.is_income " +
+        "  FROM section s WHERE s.budget_id = ?" +
+        "), new_sections AS (" +
+        "  INSERT INTO section (id, budget_id, name, display_order, is_income) " +
+        "  SELECT new_id, ?, name, display_order, is_income FROM section_map" +
+        "), item_map AS MATERIALIZED (" +
+        "  SELECT bi.id AS old_id, nextval(pg_get_serial_sequence('budget_item', 'id')) AS new_id, " +
+        "  sm.new_id AS section_id, bi.name, bi.planned_amount, bi.display_order, bi.is_excluded_from_budget " +
+        "  FROM budget_item bi JOIN section_map sm ON sm.old_id = bi.section_id" +
+        "), new_items AS (" +
+        "  INSERT INTO budget_item (id, section_id, name, planned_amount, actual_amount, display_order, is_excluded_from_budget) " +
+        "  SELECT new_id, section_id, name, planned_amount, 0, display_order, is_excluded_from_budget FROM item_map" +
+        "), plan_map AS MATERIALIZED (" +
+        "  SELECT p.id AS old_id, nextval(pg_get_serial_sequence('plan', 'id')) AS new_id, im.new_id AS budget_item_id " +
+        "  FROM plan p JOIN item_map im ON im.old_id = p.budget_item_id " +
+        "  WHERE p.year = ? AND p.month = ?" +
+        "), new_plans AS (" +
+        "  INSERT INTO plan (id, budget_item_id, year, month, created_at) " +
+        "  SELECT new_id, budget_item_id, ?, ?, LOCALTIMESTAMP FROM plan_map" +
+        "), new_plan_items AS (" +
+        "  INSERT INTO plan_item (plan_id, name, amount, display_order, from_subscription, from_salary) " +
+        "  SELECT pm.new_id, pi.name, pi.amount, pi.display_order, pi.from_subscription, pi.from_salary " +
+        "  FROM plan_item pi JOIN plan_map pm ON pm.old_id = pi.plan_id" +
+        ") " +
+        "SELECT (SELECT COUNT(*) FROM section_map) + (SELECT COUNT(*) FROM item_map) + (SELECT COUNT(*) FROM plan_map)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Returns the new budget id, or null when the month already exists (or is being created concurrently)
+    public Long insertBudgetIfAbsent(int year, int month) {
+        List<Long> ids = jdbcTemplate.queryForList(INSERT_BUDGET_SQL, Long.class, year, month);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    // Returns the number of sections, items and plans copied
+    public int copyLayout(long sourceBudgetId, YearMonth source, long targetBudgetId, YearMonth target) {
+        Integer copied = jdbcTemplate.queryForObject(COPY_LAYOUT_SQL, Integer.class,
+            sourceBudgetId, targetBudgetId,
+            source.getYear(), source.getMonthValue(),
+            target.getYear(), target.getMonthValue());
+        return copied != null ? copied : 0;
+    }
+
+    // sectionItems.get(i) holds the item names of section i; display orders start at 1
+    public void insertLayout(long budgetId, List<String> sectionNames, List<Boolean> sectionIsIncome,
+                             List<List<String>> sectionItems) {
+        Integer[] sectionOrders = new Integer[sectionNames.size()];
+        List<Integer> itemSectionOrders = new ArrayList<>();
+        List<String> itemNames = new ArrayList<>();
+        List<Integer> itemOrders = new ArrayList<>();
+        for (int i = 0; i < sectionNames.size(); i++) {
+            sectionOrders[i] = i + 1;
+            List<String> items = sectionItems.get(i);
+            for (int j = 0; j < items.size(); j++) {
+                itemSectionOrders.add(i + 1);
+                itemNames.add(items.get(j));
+                itemOrders.add(j + 1);
+            }
+        }
+
+        jdbcTemplate.update(INSERT_LAYOUT_SQL, ps -> {
+            Connection con = ps.getConnection();
+            ps.setLong(1, budgetId);
+            ps.setArray(2, con.createArrayOf("varchar", sectionNames.toArray()));
+            ps.setArray(3, con.createArrayOf("int4", sectionOrders));
+            ps.setArray(4, con.createArrayOf("bool", sectionIsIncome.toArray()));
+            ps.setArray(5, con.createArrayOf("int4", itemSectionOrders.toArray()));
+            ps.setArray(6, con.createArrayOf("varchar", itemNames.toArray()));
+            ps.setArray(7, con.createArrayOf("int4", itemOrders.toArray()));
+        });
+    }
+}
@@ -15,11 +15,10 @@ public interface BudgetRepository extends JpaRepository<Budget, Long> {
 
     List<Budget> findByYearOrderByMonthAsc(Integer year);
 
+    // First half of the budget tree load; SectionRepository.findByBudgetIdWithItems fills in the items.
+    // Fetching both collections in one query would multiply sections by items.
     @Query("SELECT DISTINCT b FROM Budget b LEFT JOIN FETCH b.sections WHERE b.year = :year AND b.month = :month")
-    Optional<Budget> findByYearAndMonthWithSectionsAndItems(Integer year, Integer month);
-
-    @Query("SELECT DISTINCT b FROM Budget b LEFT JOIN FETCH b.sections WHERE b.id = :id")
-    Optional<Budget> findByIdWithSectionsAndItems(Long id);
+    Optional<Budget> findByYearAndMonthWithSections(Integer year, Integer month);
 
     boolean existsByYearAndMonth(Integer year, Integer month);
 }
@@ -0,0 +1,127 @@
+package com.budget.repository;
+
+import com.budget.dto.MonthTotalsDTO;
+import com.budget.dto.SectionTotalsDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+// Planned/actual totals per budget month computed in the database, one grouped statement per
+// request regardless of how many months are covered. Follows the BudgetDTO rules: excluded items
+// are skipped, income actuals count as stored and expense actuals are negated so spending is positive.
+@Repository
+@RequiredArgsConstructor
+public class BudgetSummaryRepository {
+
+    private static final String MONTH_TOTALS_SQL =
+        "SELECT b.id AS budget_id, b.year, b.month, " +
+        "COALESCE(SUM(CASE WHEN s.is_income THEN bi.planned_amount END), 0) AS planned_income, " +
+        "COALESCE(SUM(CASE WHEN s.is_income THEN a.amount END), 0) AS actual_income, " +
+        "COALESCE(SUM(CASE WHEN NOT s.is_income THEN bi.planned_amount END), 0) AS planned_expenses, " +
+        "COALESCE(SUM(CASE WHEN NOT s.is_income THEN -a.amount END), 0) AS actual_expenses " +
+        "FROM budget b " +
+        "LEFT JOIN section s ON s.budget_id = b.id " +
+        "LEFT JOIN budget_item bi ON bi.section_id = s.id AND bi.is_excluded_from_budget = false " +
+        "LEFT JOIN budget_item_actuals a ON a.budget_item_id = bi.id AND a.year = b.year AND a.month = b.month " +
+        "WHERE (b.year, b.month) >= (?, ?) AND (b.year, b.month) <= (?, ?) " +
+        "GROUP BY b.id, b.year, b.month " +
+        "ORDER BY b.year, b.month";
+
+    private static final String SECTION_TOTALS_SQL =
+        "SELECT b.id AS budget_id, b.year, b.month, " +
+        "s.id AS section_id, s.name AS section_name, s.is_income, s.display_order, " +
+        "COALESCE(SUM(bi.planned_amount), 0) AS planned, " +
+        "COALESCE(SUM(CASE WHEN s.is_income THEN a.amount ELSE -a.amount END), 0) AS actual " +
+        "FROM budget b " +
+        "LEFT JOIN section s ON s.budget_id = b.id " +
+        "LEFT JOIN budget_item bi ON bi.section_id = s.id AND bi.is_excluded_from_budget = false " +
+        "LEFT JOIN budget_item_actuals a ON a.budget_item_id = bi.id AND a.year = b.year AND a.month = b.month " +
+        "WHERE (b.year, b.month) >= (?, ?) AND (b.year, b.month) <= (?, ?) " +
+        "GROUP BY b.id, b.year, b.month, s.id, s.name, s.is_income, s.display_order " +
+        "ORDER BY b.year, b.month, s.display_order";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Months without a budget are absent from the result
+    public List<MonthTotalsDTO> findMonthTotals(YearMonth from, YearMonth to) {
+        return jdbcTemplate.query(MONTH_TOTALS_SQL, (rs, rowNum) -> toMonthTotals(rs),
+            from.getYear(), from.getMonthValue(), to.getYear(), to.getMonthValue());
+    }
+
+    // Same totals with per-section rows; month totals are summed from the sections in the same pass
+    public List<MonthTotalsDTO> findMonthTotalsBySection(YearMonth from, YearMonth to) {
+        List<MonthTotalsDTO> months = new ArrayList<>();
+        jdbcTemplate.query(SECTION_TOTALS_SQL, rs -> {
+            long budgetId = rs.getLong("budget_id");
+            MonthTotalsDTO current = months.isEmpty() ? null : months.get(months.size() - 1);
+            if (current == null || current.getBudgetId() != budgetId) {
+                current = emptyMonth(budgetId, rs.getInt("year"), rs.getInt("month"));
+                months.add(current);
+            }
+
+            long sectionId = rs.getLong("section_id");
+            if (rs.wasNull()) {
+                return; // Budget without sections
+            }
+            SectionTotalsDTO section = new SectionTotalsDTO();
+            section.setSectionId(sectionId);
+            section.setName(rs.getString("section_name"));
+            section.setIsIncome(rs.getBoolean("is_income"));
+            section.setPlanned(rs.getBigDecimal("planned"));
+            section.setActual(rs.getBigDecimal("actual"));
+            current.getSections().add(section);
+
+            if (section.getIsIncome()) {
+                current.setPlannedIncome(current.getPlannedIncome().add(section.getPlanned()));
+                current.setActualIncome(current.getActualIncome().add(section.getActual()));
+            } else {
+                current.setPlannedExpenses(current.getPlannedExpenses().add(section.getPlanned()));
+                current.setActualExpenses(current.getActualExpenses().add(section.getActual()));
+            }
+        }, from.getYear(), from.getMonthValue(), to.getYear(), to.getMonthValue());
+
+        for (MonthTotalsDTO month : months) {
+            month.setPlannedSavings(month.getPlannedIncome().subtract(month.getPlannedExpenses()));
+            month.setActualSavings(month.getActualIncome().subtract(month.getActualExpenses()));
+        }
+        return months;
+    }
+
+    private static MonthTotalsDTO emptyMonth(long budgetId, int year, int month) {
+        MonthTotalsDTO totals = new MonthTotalsDTO();
+        totals.setBudgetId(budgetId);
+        totals.setYear(year);
+        totals.setMonth(month);
+        totals.setPlannedIncome(BigDecimal.ZERO);
+        totals.setActualIncome(BigDecimal.ZERO);
+        totals.setPlannedExpenses(BigDecimal.ZERO);
+        totals.setActualExpenses(BigDecimal.ZERO);
+        totals.setSections(new ArrayList<>());
+        return totals;
+    }
+
+    private static MonthTotalsDTO toMonthTotals(ResultSet rs) throws SQLException {
+        MonthTotalsDTO totals = new MonthTotalsDTO();
+        totals.setBudgetId(rs.getLong("budget_id"));
+        totals.setYear(rs.getInt("year"));
+        totals.setMonth(rs.getInt("month"));
+        BigDecimal plannedIncome = rs.getBigDecimal("planned_income");
+        BigDecimal actualIncome = rs.getBigDecimal("actual_income");
+        BigDecimal plannedExpenses = rs.getBigDecimal("planned_expenses");
+        BigDecimal actualExpenses = rs.getBigDecimal("actual_expenses");
+        totals.setPlannedIncome(plannedIncome);
+        totals.setActualIncome(actualIncome);
+        totals.setPlannedExpenses(plannedExpenses);
+        totals.setActualExpenses(actualExpenses);
+        totals.setPlannedSavings(plannedIncome.subtract(plannedExpenses));
+        totals.setActualSavings(actualIncome.subtract(actualExpenses));
+        return totals;
+    }
+}
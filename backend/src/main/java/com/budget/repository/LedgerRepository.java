@@ -0,0 +1,148 @@
+package com.budget.repository;
+
+import com.budget.model.LedgerAccountType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Journal of savings movements: each ledger_entry has legs that sum to zero, and rows are never
+// updated or deleted (enforced by triggers). An account's balance is its ledger_snapshot plus the
+// legs appended after the snapshot's last_leg_id; nothing else stores it.
+@Repository
+@RequiredArgsConstructor
+public class LedgerRepository {
+
+    private static final String INSERT_ENTRY_SQL =
+        "INSERT INTO ledger_entry (entry_date, description, created_at) VALUES (?, ?, LOCALTIMESTAMP) RETURNING id";
+
+    private static final String INSERT_LEG_SQL =
+        "INSERT INTO ledger_leg (entry_id, account_type, account_ref, amount) VALUES (?, ?, ?, ?)";
+
+    private static final String BALANCE_SQL =
+        "SELECT COALESCE(s.balance, 0) + COALESCE((" +
+        "  SELECT SUM(l.amount) FROM ledger_leg l " +
+        "  WHERE l.account_type = a.account_type AND l.account_ref = a.account_ref " +
+        "  AND l.id > COALESCE(s.last_leg_id, 0)" +
+        "), 0) " +
+        "FROM (SELECT CAST(? AS varchar) AS account_type, CAST(? AS bigint) AS account_ref) a " +
+        "LEFT JOIN ledger_snapshot s ON s.account_type = a.account_type AND s.account_ref = a.account_ref";
+
+    // Same sum for many accounts of one type; accounts without legs are simply absent
+    private static final String BALANCES_SQL =
+        "SELECT account_ref, SUM(amount) AS balance FROM (" +
+        "  SELECT account_ref, balance AS amount FROM ledger_snapshot " +
+        "  WHERE account_type = :type AND account_ref IN (:refs) " +
+        "  UNION ALL " +
+        "  SELECT l.account_ref, l.amount FROM ledger_leg l " +
+        "  LEFT JOIN ledger_snapshot s ON s.account_type = l.account_type AND s.account_ref = l.account_ref " +
+        "  WHERE l.account_type = :type AND l.account_ref IN (:refs) AND l.id > COALESCE(s.last_leg_id, 0)" +
+        ") b GROUP BY account_ref";
+
+    // SHARE mode waits for in-flight appends and blocks new ones until commit, so no leg with an id
+    // below the recorded bound can become visible after the snapshot is taken
+    private static final String LOCK_LEGS_SQL = "LOCK TABLE ledger_leg IN SHARE MODE";
+
+    private static final String SNAPSHOT_SQL =
+        "WITH bound AS (SELECT COALESCE(MAX(id), 0) AS max_id FROM ledger_leg), " +
+        "tail AS (" +
+        "  SELECT l.account_type, l.account_ref, SUM(l.amount) AS amount FROM ledger_leg l " +
+        "  LEFT JOIN ledger_snapshot s ON s.account_type = l.account_type AND s.account_ref = l.account_ref " +
+        "  WHERE l.id > COALESCE(s.last_leg_id, 0) " +
+        "  GROUP BY l.account_type, l.account_ref" +
+        ") " +
+        "INSERT INTO ledger_snapshot (account_type, account_ref, balance, last_leg_id, taken_at) " +
+        "SELECT t.account_type, t.account_ref, COALESCE(s.balance, 0) + t.amount, bound.max_id, LOCALTIMESTAMP " +
+        "FROM tail t CROSS JOIN bound " +
+        "LEFT JOIN ledger_snapshot s ON s.account_type = t.account_type AND s.account_ref = t.account_ref " +
+        "ON CONFLICT (account_type, account_ref) " +
+        "DO UPDATE SET balance = EXCLUDED.balance, last_leg_id = EXCLUDED.last_leg_id, taken_at = EXCLUDED.taken_at";
+
+    // The verify queries take (partitions, partition) and only look at their share of the rows
+
+    private static final String COUNT_UNBALANCED_SQL =
+        "SELECT COUNT(*) FROM (" +
+        "  SELECT entry_id FROM ledger_leg WHERE MOD(entry_id, ?) = ? " +
+        "  GROUP BY entry_id HAVING SUM(amount) <> 0" +
+        ") unbalanced";
+
+    private static final String COUNT_SNAPSHOT_MISMATCHES_SQL =
+        "SELECT COUNT(*) FROM ledger_snapshot s " +
+        "WHERE MOD(s.account_ref, ?) = ? AND s.balance <> COALESCE((" +
+        "  SELECT SUM(l.amount) FROM ledger_leg l " +
+        "  WHERE l.account_type = s.account_type AND l.account_ref = s.account_ref AND l.id <= s.last_leg_id" +
+        "), 0)";
+
+    // Full replay of both books: the holdings and allocation sides must each equal the account total
+    private static final String POOL_MISMATCH_SQL =
+        "SELECT SUM(CASE WHEN account_type = 'SAVINGS_ACCOUNT' THEN amount ELSE 0 END) " +
+        "         <> -SUM(CASE WHEN account_type = 'EXTERNAL' THEN amount ELSE 0 END) " +
+        "    OR SUM(CASE WHEN account_type = 'SAVINGS_ACCOUNT' THEN amount ELSE 0 END) " +
+        "         <> SUM(CASE WHEN account_type IN ('SAVINGS_FUND', 'UNALLOCATED') THEN amount ELSE 0 END) " +
+        "FROM ledger_leg";
+
+    public record Leg(LedgerAccountType type, long ref, BigDecimal amount) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    // Appends one entry; the caller makes sure the legs sum to zero
+    public void post(LocalDate date, String description, List<Leg> legs) {
+        Long entryId = jdbcTemplate.queryForObject(INSERT_ENTRY_SQL, Long.class, date, description);
+        List<Object[]> rows = new ArrayList<>(legs.size());
+        for (Leg leg : legs) {
+            rows.add(new Object[] {entryId, leg.type().name(), leg.ref(), leg.amount()});
+        }
+        jdbcTemplate.batchUpdate(INSERT_LEG_SQL, rows);
+    }
+
+    public BigDecimal findBalance(LedgerAccountType type, long ref) {
+        return jdbcTemplate.queryForObject(BALANCE_SQL, BigDecimal.class, type.name(), ref);
+    }
+
+    // ref -> balance for every requested ref, zero where there are no legs
+    public Map<Long, BigDecimal> findBalances(LedgerAccountType type, Collection<Long> refs) {
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (Long ref : refs) {
+            balances.put(ref, BigDecimal.ZERO);
+        }
+        if (refs.isEmpty()) {
+            return balances;
+        }
+        namedJdbcTemplate.query(BALANCES_SQL, Map.of("type", type.name(), "refs", refs),
+            rs -> { balances.put(rs.getLong("account_ref"), rs.getBigDecimal("balance")); });
+        return balances;
+    }
+
+    // Must run inside a transaction; returns the number of snapshot rows advanced
+    public int takeSnapshot() {
+        jdbcTemplate.execute(LOCK_LEGS_SQL);
+        return jdbcTemplate.update(SNAPSHOT_SQL);
+    }
+
+    public long countUnbalancedEntries(int partitions, int partition) {
+        return count(COUNT_UNBALANCED_SQL, partitions, partition);
+    }
+
+    public long countSnapshotMismatches(int partitions, int partition) {
+        return count(COUNT_SNAPSHOT_MISMATCHES_SQL, partitions, partition);
+    }
+
+    public boolean hasPoolMismatch() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(POOL_MISMATCH_SQL, Boolean.class));
+    }
+
+    private long count(String sql, Object... args) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return count != null ? count : 0;
+    }
+}
@@ -2,10 +2,12 @@ package com.budget.repository;
 
 import com.budget.model.SavingsAccountEvent;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface SavingsAccountEventRepository extends JpaRepository<SavingsAccountEvent, Long> {
@@ -20,4 +22,31 @@ public interface SavingsAccountEventRepository extends JpaRepository<SavingsAcco
 
     @Query("SELECT MAX(e.eventDate) FROM SavingsAccountEvent e WHERE e.account.id = :accountId")
     LocalDate findLatestEventDateByAccountId(@Param("accountId") Long accountId);
+
+    // Rewrites balance_after for the account's events at or after the given (event_date,
+    // created_at, id) position. Each event's balance is the current account balance (ledger
+    // snapshot plus tail) minus the signed amounts of the events after it, summed by one window
+    // over the tail, so earlier history is never read and unchanged rows are not written.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE savings_account_event e SET balance_after = r.balance_after " +
+           "FROM (" +
+           "  SELECT id, (" +
+           "    SELECT COALESCE(s.balance, 0) + COALESCE((" +
+           "      SELECT SUM(l.amount) FROM ledger_leg l " +
+           "      WHERE l.account_type = 'SAVINGS_ACCOUNT' AND l.account_ref = :accountId " +
+           "      AND l.id > COALESCE(s.last_leg_id, 0)" +
+           "    ), 0) FROM (SELECT 1) one " +
+           "    LEFT JOIN ledger_snapshot s ON s.account_type = 'SAVINGS_ACCOUNT' AND s.account_ref = :accountId" +
+           "  ) - COALESCE(SUM(" +
+           "    CASE WHEN event_type = 'DEPOSIT' THEN amount ELSE -amount END" +
+           "  ) OVER (ORDER BY event_date DESC, created_at DESC, id DESC " +
+           "          ROWS BETWEEN UNBOUNDED PRECEDING AND 1 PRECEDING), 0) AS balance_after " +
+           "  FROM savings_account_event " +
+           "  WHERE account_id = :accountId " +
+           "  AND (event_date, created_at, id) >= (:fromDate, :fromCreatedAt, :fromId)" +
+           ") r " +
+           "WHERE e.id = r.id AND e.balance_after IS DISTINCT FROM r.balance_after",
+           nativeQuery = true)
+    int rebalanceFrom(@Param("accountId") Long accountId, @Param("fromDate") LocalDate fromDate,
+                      @Param("fromCreatedAt") LocalDateTime fromCreatedAt, @Param("fromId") Long fromId);
 }
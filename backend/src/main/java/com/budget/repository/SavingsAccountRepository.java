@@ -1,16 +1,20 @@
 package com.budget.repository;
 
 import com.budget.model.SavingsAccount;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 public interface SavingsAccountRepository extends JpaRepository<SavingsAccount, Long> {
 
     List<SavingsAccount> findAllByIsActiveTrueOrderByNameAsc();
 
-    @Query("SELECT COALESCE(SUM(a.balance), 0) FROM SavingsAccount a WHERE a.isActive = true")
-    BigDecimal sumActiveBalances();
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM SavingsAccount a WHERE a.id = :id")
+    Optional<SavingsAccount> findByIdForUpdate(@Param("id") Long id);
 }
@@ -2,20 +2,37 @@ package com.budget.repository;
 
 import com.budget.model.SavingsEvent;
 import com.budget.model.SavingsEventType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 public interface SavingsEventRepository extends JpaRepository<SavingsEvent, Long> {
 
     @Query("SELECT e FROM SavingsEvent e JOIN FETCH e.fund WHERE e.fund.id = :fundId ORDER BY e.eventDate DESC, e.createdAt DESC")
     List<SavingsEvent> findByFundIdOrderByDateDesc(@Param("fundId") Long fundId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM SavingsEvent e WHERE e.id = :id")
+    Optional<SavingsEvent> findByIdForUpdate(@Param("id") Long id);
+
+    // Date bounds are a half-open range rather than YEAR(eventDate) so the
+    // (fund_id, event_type, event_date) index can serve them
     @Query("SELECT COALESCE(SUM(e.amount), 0) FROM SavingsEvent e " +
            "WHERE e.fund.id = :fundId AND e.eventType = 'WITHDRAWAL' " +
-           "AND YEAR(e.eventDate) = :year")
-    BigDecimal sumWithdrawalsForFundInYear(@Param("fundId") Long fundId, @Param("year") int year);
+           "AND e.eventDate >= :from AND e.eventDate < :to")
+    BigDecimal sumWithdrawalsForFundBetween(@Param("fundId") Long fundId,
+                                            @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT e.fund.id, SUM(e.amount) FROM SavingsEvent e " +
+           "WHERE e.fund.id IN :fundIds AND e.eventType = 'WITHDRAWAL' " +
+           "AND e.eventDate >= :from AND e.eventDate < :to GROUP BY e.fund.id")
+    List<Object[]> sumWithdrawalsForFundsBetween(@Param("fundIds") List<Long> fundIds,
+                                                 @Param("from") LocalDate from, @Param("to") LocalDate to);
 }
@@ -1,10 +1,12 @@
 package com.budget.repository;
 
 import com.budget.model.SavingsFund;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,8 +16,9 @@ public interface SavingsFundRepository extends JpaRepository<SavingsFund, Long>
 
     Optional<SavingsFund> findByIsSystemFundTrue();
 
-    @Query("SELECT COALESCE(SUM(f.balance), 0) FROM SavingsFund f WHERE f.isActive = true")
-    BigDecimal sumAllActiveFundBalances();
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM SavingsFund f WHERE f.id = :id")
+    Optional<SavingsFund> findByIdForUpdate(@Param("id") Long id);
 
     @Query("SELECT f FROM SavingsFund f WHERE f.isActive = true " +
            "AND f.goalType IN ('TARGET_WITH_DEADLINE', 'SPEND_DOWN') " +
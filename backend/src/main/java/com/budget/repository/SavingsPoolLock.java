@@ -0,0 +1,25 @@
+package com.budget.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+// Serializes writers that check "sum of active fund balances <= pool balance" before growing a
+// fund. The check reads every fund, so row locks alone cannot stop two allocations from both
+// passing it; a transaction-scoped advisory lock is held until commit or rollback instead.
+@Repository
+@RequiredArgsConstructor
+public class SavingsPoolLock {
+
+    // Arbitrary application-wide key; only this class takes it
+    private static final long POOL_LOCK_KEY = 0x5341564E47L;
+
+    private static final String LOCK_SQL = "SELECT pg_advisory_xact_lock(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Must be called inside a transaction; blocks until any other pool writer commits
+    public void lock() {
+        jdbcTemplate.query(LOCK_SQL, rs -> { }, POOL_LOCK_KEY);
+    }
+}
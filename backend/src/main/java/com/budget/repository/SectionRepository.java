@@ -16,6 +16,10 @@ public interface SectionRepository extends JpaRepository<Section, Long> {
     @Query("SELECT COALESCE(MAX(s.displayOrder), 0) FROM Section s WHERE s.budget.id = :budgetId")
     Integer findMaxDisplayOrderByBudgetId(Long budgetId);
 
+    // Initializes the items of every section of a budget in one statement
+    @Query("SELECT DISTINCT s FROM Section s LEFT JOIN FETCH s.items WHERE s.budget.id = :budgetId")
+    List<Section> findByBudgetIdWithItems(Long budgetId);
+
     @Query("SELECT s FROM Section s LEFT JOIN FETCH s.items WHERE s.id = :id")
     Optional<Section> findByIdWithItems(Long id);
 }
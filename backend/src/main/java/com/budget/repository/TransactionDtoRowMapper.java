@@ -0,0 +1,33 @@
+package com.budget.repository;
+
+import com.budget.dto.TransactionDTO;
+import com.budget.model.TransactionType;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+// Maps a row selected with TransactionSqlBuilder.DTO_COLUMNS; shared by the list and export reads
+class TransactionDtoRowMapper implements RowMapper<TransactionDTO> {
+
+    static final TransactionDtoRowMapper INSTANCE = new TransactionDtoRowMapper();
+
+    @Override
+    public TransactionDTO mapRow(ResultSet rs, int rowNum) throws SQLException {
+        TransactionDTO dto = new TransactionDTO();
+        dto.setId(rs.getLong("id"));
+        dto.setSectionId(rs.getObject("section_id", Long.class));
+        dto.setSectionName(rs.getString("section_name"));
+        dto.setBudgetItemId(rs.getObject("budget_item_id", Long.class));
+        dto.setBudgetItemName(rs.getString("budget_item_name"));
+        dto.setType(TransactionType.valueOf(rs.getString("type")));
+        dto.setTransactionDate(rs.getDate("transaction_date").toLocalDate());
+        dto.setMerchant(rs.getString("merchant"));
+        dto.setAmount(rs.getBigDecimal("amount"));
+        dto.setNote(rs.getString("note"));
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        dto.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        return dto;
+    }
+}
@@ -0,0 +1,41 @@
+package com.budget.repository;
+
+import com.budget.dto.TransactionDTO;
+import com.budget.dto.TransactionFilter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.Consumer;
+
+// Forward-only read path for exports: rows are mapped straight to DTOs and handed off one at a
+// time, so nothing accumulates in the persistence context or in a result list.
+@Repository
+public class TransactionExportReader {
+
+    // With autocommit off (inside a transaction) the Postgres driver pulls rows through a
+    // cursor in chunks of this size instead of buffering the whole result
+    private static final int FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public TransactionExportReader(JdbcTemplate jdbcTemplate) {
+        JdbcTemplate streaming = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streaming.setFetchSize(FETCH_SIZE);
+        this.jdbcTemplate = streaming;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(streaming);
+    }
+
+    // Must run inside a transaction, otherwise the driver fetches everything up front
+    public void forEach(TransactionFilter filter, Consumer<TransactionDTO> consumer) {
+        TransactionSqlBuilder sql = TransactionSqlBuilder.forFilter(filter).withNames();
+        if (sql.similarityThreshold() != null) {
+            jdbcTemplate.queryForObject("SELECT set_config('pg_trgm.similarity_threshold', ?, true)",
+                    String.class, String.valueOf(sql.similarityThreshold()));
+        }
+
+        namedJdbcTemplate.query(TransactionSqlBuilder.DTO_COLUMNS + sql.fromWhere() + sql.orderBy(), sql.params(),
+                rs -> consumer.accept(TransactionDtoRowMapper.INSTANCE.mapRow(rs, 0)));
+    }
+}
@@ -0,0 +1,117 @@
+package com.budget.repository;
+
+import com.budget.model.Transaction;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Set-wise insert path for CSV imports: one INSERT ... ON CONFLICT per batch, deduplicated
+// against the unique import_fingerprint index, instead of one save() per row.
+// Also maintains budget_item_actuals for the rows it actually inserts.
+@Repository
+@RequiredArgsConstructor
+public class TransactionImportWriter {
+
+    // Must match the allocationSize of transaction_seq on Transaction (pooled optimizer blocks)
+    private static final int ID_BLOCK_SIZE = 50;
+
+    private static final String ALLOCATE_IDS_SQL =
+        "SELECT nextval('transaction_batch_seq') FROM generate_series(1, ?)";
+
+    // The inserted rows are rolled into budget_item_actuals by a second data-modifying CTE, so
+    // the batch and its rollup deltas commit (or fail) together in one statement
+    private static final String INSERT_SQL =
+        "WITH inserted AS (" +
+        "INSERT INTO transaction (id, section_id, budget_item_id, type, transaction_date, " +
+        "merchant, amount, note, created_at, import_fingerprint) " +
+        "SELECT u.id, u.section_id, u.budget_item_id, u.type, u.transaction_date, " +
+        "u.merchant, u.amount, u.note, LOCALTIMESTAMP, u.import_fingerprint " +
+        "FROM unnest(?::bigint[], ?::bigint[], ?::bigint[], ?::varchar[], ?::date[], " +
+        "?::varchar[], ?::numeric[], ?::text[], ?::varchar[]) " +
+        "AS u(id, section_id, budget_item_id, type, transaction_date, merchant, amount, note, import_fingerprint) " +
+        "ON CONFLICT (import_fingerprint) DO NOTHING " +
+        "RETURNING budget_item_id, type, transaction_date, amount" +
+        "), rolled AS (" +
+        "INSERT INTO budget_item_actuals (budget_item_id, year, month, amount) " +
+        "SELECT budget_item_id, EXTRACT(YEAR FROM transaction_date)::int, EXTRACT(MONTH FROM transaction_date)::int, " +
+        "SUM(CASE WHEN type = 'INCOME' THEN amount ELSE -amount END) " +
+        "FROM inserted WHERE budget_item_id IS NOT NULL " +
+        "GROUP BY 1, 2, 3 " +
+        "ON CONFLICT (budget_item_id, year, month) " +
+        "DO UPDATE SET amount = budget_item_actuals.amount + EXCLUDED.amount" +
+        ") " +
+        "SELECT COUNT(*) FROM inserted";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Inserts the batch and returns how many rows were new; the rest were already imported
+    public int insertIgnoringDuplicates(List<Transaction> transactions, List<String> fingerprints) {
+        if (transactions.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = allocateIds(transactions.size());
+        int size = transactions.size();
+        Long[] idArr = new Long[size];
+        Long[] sectionIds = new Long[size];
+        Long[] budgetItemIds = new Long[size];
+        String[] types = new String[size];
+        String[] dates = new String[size];
+        String[] merchants = new String[size];
+        BigDecimal[] amounts = new BigDecimal[size];
+        String[] notes = new String[size];
+        String[] fingerprintArr = fingerprints.toArray(new String[0]);
+
+        for (int i = 0; i < size; i++) {
+            Transaction t = transactions.get(i);
+            idArr[i] = ids.get(i);
+            sectionIds[i] = t.getSection() != null ? t.getSection().getId() : null;
+            budgetItemIds[i] = t.getBudgetItem() != null ? t.getBudgetItem().getId() : null;
+            types[i] = t.getType().name();
+            dates[i] = t.getTransactionDate().toString();
+            merchants[i] = t.getMerchant();
+            amounts[i] = t.getAmount();
+            notes[i] = t.getNote();
+        }
+
+        Integer inserted = jdbcTemplate.query(INSERT_SQL, ps -> {
+            Connection con = ps.getConnection();
+            ps.setArray(1, array(con, "bigint", idArr));
+            ps.setArray(2, array(con, "bigint", sectionIds));
+            ps.setArray(3, array(con, "bigint", budgetItemIds));
+            ps.setArray(4, array(con, "varchar", types));
+            ps.setArray(5, array(con, "varchar", dates));
+            ps.setArray(6, array(con, "varchar", merchants));
+            ps.setArray(7, array(con, "numeric", amounts));
+            ps.setArray(8, array(con, "text", notes));
+            ps.setArray(9, array(con, "varchar", fingerprintArr));
+        }, rs -> rs.next() ? rs.getInt(1) : 0);
+        return inserted != null ? inserted : 0;
+    }
+
+    // Each nextval reserves a block of ID_BLOCK_SIZE ids (value - 49 .. value), the same
+    // contract Hibernate's pooled optimizer uses, so JPA and import inserts never collide.
+    private List<Long> allocateIds(int count) {
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> blockEnds = jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, blocks);
+
+        List<Long> ids = new ArrayList<>(blocks * ID_BLOCK_SIZE);
+        for (Long end : blockEnds) {
+            for (long id = end - ID_BLOCK_SIZE + 1; id <= end; id++) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static Array array(Connection con, String type, Object[] values) throws SQLException {
+        return con.createArrayOf(type, values);
+    }
+}
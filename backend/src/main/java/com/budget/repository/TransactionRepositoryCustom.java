@@ -0,0 +1,32 @@
+package com.budget.repository;
+
+import com.budget.dto.TransactionDTO;
+import com.budget.dto.TransactionFilter;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+// List reads return TransactionDTO projections rather than entities
+public interface TransactionRepositoryCustom {
+
+    Page<TransactionDTO> findByFilter(TransactionFilter filter, Pageable pageable);
+
+    // Offset page without a count: fetches one extra row so the slice knows whether more exist
+    Slice<TransactionDTO> findSliceByFilter(TransactionFilter filter, Pageable pageable);
+
+    // Planner row estimate for the filter; cheap but approximate
+    long estimateCountByFilter(TransactionFilter filter);
+
+    // Set-based recategorization; returns how many rows actually changed, per transaction month
+    Map<YearMonth, Integer> updateCategoryByFilter(TransactionFilter filter, Long sectionId, Long budgetItemId);
+
+    Map<YearMonth, Integer> updateCategoryByIds(List<Long> ids, Long sectionId, Long budgetItemId);
+
+    // Keyset (seek) page: rows strictly after the (date, id) cursor, newest first
+    List<TransactionDTO> findByFilterAfter(TransactionFilter filter, LocalDate cursorDate, Long cursorId, int limit);
+}
@@ -0,0 +1,187 @@
+package com.budget.repository;
+
+import com.budget.dto.TransactionDTO;
+import com.budget.dto.TransactionFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+
+    private static final ObjectMapper PLAN_READER = new ObjectMapper();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public TransactionRepositoryImpl(NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    @Override
+    public Page<TransactionDTO> findByFilter(TransactionFilter filter, Pageable pageable) {
+        TransactionSqlBuilder sql = TransactionSqlBuilder.forFilter(filter);
+        applySimilarityThreshold(sql);
+        String countFromWhere = sql.fromWhere();
+
+        Map<String, Object> params = new HashMap<>(sql.params());
+        params.put("limit", pageable.getPageSize());
+        params.put("offset", pageable.getOffset());
+        List<TransactionDTO> content = findDtos(sql.withNames().fromWhere() + sql.orderBy() + " LIMIT :limit OFFSET :offset", params);
+
+        Long total = namedJdbcTemplate.queryForObject("SELECT COUNT(*) " + countFromWhere, sql.params(), Long.class);
+
+        return new PageImpl<>(content, pageable, total != null ? total : 0);
+    }
+
+    @Override
+    public Slice<TransactionDTO> findSliceByFilter(TransactionFilter filter, Pageable pageable) {
+        TransactionSqlBuilder sql = TransactionSqlBuilder.forFilter(filter).withNames();
+        applySimilarityThreshold(sql);
+
+        Map<String, Object> params = new HashMap<>(sql.params());
+        params.put("limit", pageable.getPageSize() + 1);
+        params.put("offset", pageable.getOffset());
+        List<TransactionDTO> rows = findDtos(sql.fromWhere() + sql.orderBy() + " LIMIT :limit OFFSET :offset", params);
+
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        List<TransactionDTO> content = hasNext ? rows.subList(0, pageable.getPageSize()) : rows;
+        return new SliceImpl<>(content, pageable, hasNext);
+    }
+
+    @Override
+    public long estimateCountByFilter(TransactionFilter filter) {
+        TransactionSqlBuilder sql = TransactionSqlBuilder.forFilter(filter);
+        applySimilarityThreshold(sql);
+
+        // EXPLAIN plans the statement without running it; the top node's row estimate is the count.
+        // Read as plain text over JDBC: Hibernate would map the json column through its own type.
+        String plan = namedJdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) SELECT t.id " + sql.fromWhere(),
+                sql.params(), (rs, rowNum) -> rs.getString(1));
+        try {
+            JsonNode rows = PLAN_READER.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            if (rows.isMissingNode()) {
+                throw new IllegalStateException("No row estimate in query plan");
+            }
+            return rows.asLong();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to read query plan", e);
+        }
+    }
+
+    @Override
+    public List<TransactionDTO> findByFilterAfter(TransactionFilter filter, LocalDate cursorDate, Long cursorId, int limit) {
+        TransactionSqlBuilder sql = TransactionSqlBuilder.forFilter(filter);
+        if (sql.isRanked()) {
+            throw new IllegalArgumentException("Cursor paging is not supported for fuzzy merchant search");
+        }
+        if (cursorDate != null) {
+            sql.where("(t.transaction_date, t.id) < (:cursorDate, :cursorId)", "cursorDate", cursorDate);
+            sql.params().put("cursorId", cursorId);
+        }
+
+        Map<String, Object> params = new HashMap<>(sql.params());
+        params.put("limit", limit);
+        return findDtos(sql.withNames().fromWhere() + sql.orderBy() + " LIMIT :limit", params);
+    }
+
+    @Override
+    public Map<YearMonth, Integer> updateCategoryByFilter(TransactionFilter filter, Long sectionId, Long budgetItemId) {
+        TransactionSqlBuilder sql = TransactionSqlBuilder.forFilter(filter);
+        if (!sql.hasPredicates()) {
+            throw new IllegalArgumentException("Filter must restrict at least one field");
+        }
+        applySimilarityThreshold(sql);
+        return updateCategory(sql, sectionId, budgetItemId);
+    }
+
+    @Override
+    public Map<YearMonth, Integer> updateCategoryByIds(List<Long> ids, Long sectionId, Long budgetItemId) {
+        TransactionSqlBuilder sql = new TransactionSqlBuilder().where("t.id IN (:ids)", "ids", ids);
+        return updateCategory(sql, sectionId, budgetItemId);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<YearMonth, Integer> updateCategory(TransactionSqlBuilder sql, Long sectionId, Long budgetItemId) {
+        // Rows already in the target are left alone so the count reflects real changes. The moved
+        // amounts are taken off the old items and added to the new one in budget_item_actuals
+        // within the same statement.
+        Query update = entityManager.createNativeQuery(
+                "WITH old AS (" +
+                "  SELECT id, budget_item_id, type, transaction_date, amount FROM transaction " +
+                "  WHERE id IN (SELECT t.id " + sql.fromWhere() + ") " +
+                "  AND (section_id IS DISTINCT FROM CAST(:targetSectionId AS bigint) " +
+                "  OR budget_item_id IS DISTINCT FROM CAST(:targetBudgetItemId AS bigint)) " +
+                "  FOR UPDATE" +
+                "), moved AS (" +
+                "  UPDATE transaction tx SET section_id = CAST(:targetSectionId AS bigint), " +
+                "  budget_item_id = CAST(:targetBudgetItemId AS bigint) " +
+                "  FROM old WHERE tx.id = old.id " +
+                "  RETURNING old.budget_item_id AS old_item_id, tx.budget_item_id AS new_item_id, " +
+                "  old.transaction_date, CASE WHEN old.type = 'INCOME' THEN old.amount ELSE -old.amount END AS signed_amount" +
+                "), deltas AS (" +
+                "  SELECT old_item_id AS budget_item_id, transaction_date, -signed_amount AS amount FROM moved " +
+                "  WHERE old_item_id IS NOT NULL AND old_item_id IS DISTINCT FROM new_item_id " +
+                "  UNION ALL " +
+                "  SELECT new_item_id, transaction_date, signed_amount FROM moved " +
+                "  WHERE new_item_id IS NOT NULL AND old_item_id IS DISTINCT FROM new_item_id" +
+                "), rolled AS (" +
+                "  INSERT INTO budget_item_actuals (budget_item_id, year, month, amount) " +
+                "  SELECT budget_item_id, CAST(EXTRACT(YEAR FROM transaction_date) AS int), " +
+                "  CAST(EXTRACT(MONTH FROM transaction_date) AS int), SUM(amount) " +
+                "  FROM deltas GROUP BY 1, 2, 3 " +
+                "  ON CONFLICT (budget_item_id, year, month) " +
+                "  DO UPDATE SET amount = budget_item_actuals.amount + EXCLUDED.amount" +
+                ") " +
+                "SELECT CAST(EXTRACT(YEAR FROM transaction_date) AS int), " +
+                "CAST(EXTRACT(MONTH FROM transaction_date) AS int), COUNT(*) " +
+                "FROM moved GROUP BY 1, 2");
+        bind(update, sql.params());
+        update.setParameter("targetSectionId", sectionId);
+        update.setParameter("targetBudgetItemId", budgetItemId);
+        Map<YearMonth, Integer> movedByMonth = new HashMap<>();
+        for (Object[] row : (List<Object[]>) update.getResultList()) {
+            YearMonth month = YearMonth.of(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+            movedByMonth.put(month, ((Number) row[2]).intValue());
+        }
+        return movedByMonth;
+    }
+
+    // Section and item names come from the LEFT JOINs in the same statement, so a page costs one
+    // query and nothing is loaded into the persistence context. Runs on the JPA transaction's connection.
+    private List<TransactionDTO> findDtos(String fromWhereOrder, Map<String, Object> params) {
+        return namedJdbcTemplate.query(TransactionSqlBuilder.DTO_COLUMNS + fromWhereOrder, params,
+                TransactionDtoRowMapper.INSTANCE);
+    }
+
+    // The % operator matches against pg_trgm.similarity_threshold; scope it to this transaction
+    private void applySimilarityThreshold(TransactionSqlBuilder sql) {
+        Double threshold = sql.similarityThreshold();
+        if (threshold == null) {
+            return;
+        }
+        entityManager.createNativeQuery("SELECT set_config('pg_trgm.similarity_threshold', :threshold, true)")
+                .setParameter("threshold", String.valueOf(threshold))
+                .getSingleResult();
+    }
+
+    private static void bind(Query query, Map<String, Object> params) {
+        params.forEach(query::setParameter);
+    }
+}
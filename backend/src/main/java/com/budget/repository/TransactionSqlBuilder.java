@@ -0,0 +1,119 @@
+package com.budget.repository;
+
+import com.budget.dto.TransactionFilter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Builds the FROM/WHERE part of transaction queries from only the filters actually supplied,
+// joining section/budget_item only when a name filter needs them. Each filter combination gets
+// its own statement shape, so Postgres can plan it against the matching index.
+class TransactionSqlBuilder {
+
+    // Projection columns for TransactionDTO; requires withNames()
+    static final String DTO_COLUMNS =
+        "SELECT t.id, t.section_id, ts.name AS section_name, t.budget_item_id, tbi.name AS budget_item_name, " +
+        "t.type, t.transaction_date, t.merchant, t.amount, t.note, t.created_at ";
+
+    private static final String DEFAULT_ORDER = "t.transaction_date DESC, t.id DESC";
+    private static final double DEFAULT_SIMILARITY = 0.3;
+
+    private final StringBuilder from = new StringBuilder("FROM transaction t");
+    private final List<String> predicates = new ArrayList<>();
+    private final Map<String, Object> params = new HashMap<>();
+    private String orderBy = DEFAULT_ORDER;
+    private Double similarityThreshold;
+
+    static TransactionSqlBuilder forFilter(TransactionFilter filter) {
+        TransactionSqlBuilder builder = new TransactionSqlBuilder();
+        if (filter == null) {
+            return builder;
+        }
+
+        if (filter.getStartDate() != null) {
+            builder.where("t.transaction_date >= :startDate", "startDate", filter.getStartDate());
+        }
+        if (filter.getEndDate() != null) {
+            builder.where("t.transaction_date <= :endDate", "endDate", filter.getEndDate());
+        }
+        if (filter.getType() != null) {
+            builder.where("t.type = :type", "type", filter.getType().name());
+        }
+        if (filter.getSectionId() != null) {
+            builder.where("t.section_id = :sectionId", "sectionId", filter.getSectionId());
+        }
+        if (filter.getBudgetItemId() != null) {
+            builder.where("t.budget_item_id = :budgetItemId", "budgetItemId", filter.getBudgetItemId());
+        }
+        if (hasText(filter.getSectionName())) {
+            builder.from.append(" JOIN section s ON s.id = t.section_id");
+            builder.where("s.name = :sectionName", "sectionName", filter.getSectionName());
+        }
+        if (hasText(filter.getBudgetItemName())) {
+            builder.from.append(" JOIN budget_item bi ON bi.id = t.budget_item_id");
+            builder.where("bi.name = :budgetItemName", "budgetItemName", filter.getBudgetItemName());
+        }
+        // Both forms are served by the GIN trigram index on LOWER(merchant)
+        if (hasText(filter.getMerchant()) && filter.isFuzzyMerchant()) {
+            builder.where("LOWER(t.merchant) % :merchant", "merchant", filter.getMerchant().toLowerCase());
+            builder.orderBy = "similarity(LOWER(t.merchant), :merchant) DESC, " + DEFAULT_ORDER;
+            builder.similarityThreshold = filter.getMerchantSimilarity() != null
+                    ? filter.getMerchantSimilarity() : DEFAULT_SIMILARITY;
+            if (builder.similarityThreshold < 0 || builder.similarityThreshold > 1) {
+                throw new IllegalArgumentException("merchantSimilarity must be between 0 and 1");
+            }
+        } else if (hasText(filter.getMerchant())) {
+            builder.where("LOWER(t.merchant) LIKE :merchant", "merchant",
+                    "%" + filter.getMerchant().toLowerCase() + "%");
+        }
+        return builder;
+    }
+
+    TransactionSqlBuilder where(String predicate, String name, Object value) {
+        predicates.add(predicate);
+        params.put(name, value);
+        return this;
+    }
+
+    boolean hasPredicates() {
+        return !predicates.isEmpty();
+    }
+
+    // Left-joins section (ts) and budget_item (tbi) so their names can be selected in the same row
+    TransactionSqlBuilder withNames() {
+        from.append(" LEFT JOIN section ts ON ts.id = t.section_id")
+            .append(" LEFT JOIN budget_item tbi ON tbi.id = t.budget_item_id");
+        return this;
+    }
+
+    // "FROM transaction t [JOIN ...] [WHERE ...]"
+    String fromWhere() {
+        if (predicates.isEmpty()) {
+            return from.toString();
+        }
+        return from + " WHERE " + String.join(" AND ", predicates);
+    }
+
+    String orderBy() {
+        return " ORDER BY " + orderBy;
+    }
+
+    boolean isRanked() {
+        return !DEFAULT_ORDER.equals(orderBy);
+    }
+
+    // Set only in fuzzy merchant mode; the % operator compares against pg_trgm.similarity_threshold
+    Double similarityThreshold() {
+        return similarityThreshold;
+    }
+
+    Map<String, Object> params() {
+        return params;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,59 @@
+package com.budget.service;
+
+import com.budget.dto.ActualsRebuildResultDTO;
+import com.budget.repository.BudgetItemActualsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Recomputes budget_item_actuals from raw transactions, one year per worker and transaction,
+// then verifies the result against a fresh aggregation
+@Service
+public class BudgetActualsService {
+
+    private final BudgetItemActualsRepository budgetItemActualsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final BudgetCacheEvictor budgetCacheEvictor;
+    private final int rebuildThreads;
+
+    // Each worker holds a pooled connection, so keep this below the Hikari pool size
+    public BudgetActualsService(BudgetItemActualsRepository budgetItemActualsRepository,
+                                TransactionTemplate transactionTemplate,
+                                BudgetCacheEvictor budgetCacheEvictor,
+                                @Value("${budget.actuals.rebuild-threads:4}") int rebuildThreads) {
+        this.budgetItemActualsRepository = budgetItemActualsRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.budgetCacheEvictor = budgetCacheEvictor;
+        this.rebuildThreads = rebuildThreads;
+    }
+
+    public ActualsRebuildResultDTO rebuild() {
+        long started = System.currentTimeMillis();
+        List<Integer> years = budgetItemActualsRepository.findYears();
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(rebuildThreads, years.size())));
+        try {
+            List<CompletableFuture<Integer>> workers = years.stream()
+                .map(year -> CompletableFuture.supplyAsync(() -> rebuildYear(year), executor))
+                .toList();
+            int rowsWritten = workers.stream().mapToInt(CompletableFuture::join).sum();
+            budgetCacheEvictor.evictAll();
+
+            long mismatches = budgetItemActualsRepository.countMismatches();
+            return new ActualsRebuildResultDTO(years.size(), rowsWritten, mismatches,
+                System.currentTimeMillis() - started);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private int rebuildYear(int year) {
+        Integer rows = transactionTemplate.execute(status -> budgetItemActualsRepository.rebuildYear(year));
+        return rows != null ? rows : 0;
+    }
+}
@@ -0,0 +1,73 @@
+package com.budget.service;
+
+import com.budget.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Evicts cached budget months touched by a write. Inside a transaction the eviction waits for
+// the commit; reads that were already loading the old state are caught by CacheGenerations,
+// which makes them drop what they put. Other instances are told through CacheInvalidationBus,
+// whose NOTIFY also fires on commit.
+@Component
+@RequiredArgsConstructor
+public class BudgetCacheEvictor {
+
+    private final CacheGenerations cacheGenerations;
+    private final CacheInvalidationBus cacheInvalidationBus;
+
+    public static String key(int year, int month) {
+        return year + "-" + month;
+    }
+
+    public void evict(int year, int month) {
+        evict(Set.of(YearMonth.of(year, month)));
+    }
+
+    // Transactions count toward the budget month of their date
+    public void evict(LocalDate date) {
+        evict(YearMonth.from(date));
+    }
+
+    public void evict(YearMonth month) {
+        evict(Set.of(month));
+    }
+
+    public void evict(Collection<YearMonth> months) {
+        if (months.isEmpty()) {
+            return;
+        }
+        Set<YearMonth> keys = new LinkedHashSet<>(months);
+        cacheInvalidationBus.publish(CacheConfig.BUDGETS, keys.stream()
+            .map(month -> key(month.getYear(), month.getMonthValue()))
+            .toList());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictNow(keys);
+                }
+            });
+        } else {
+            evictNow(keys);
+        }
+    }
+
+    public void evictAll() {
+        cacheInvalidationBus.publishClear(CacheConfig.BUDGETS);
+        cacheGenerations.clear(CacheConfig.BUDGETS);
+    }
+
+    private void evictNow(Collection<YearMonth> months) {
+        for (YearMonth month : months) {
+            cacheGenerations.invalidate(CacheConfig.BUDGETS, key(month.getYear(), month.getMonthValue()));
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.budget.service;
 import com.budget.dto.BudgetItemDTO;
 import com.budget.dto.CreateItemRequest;
 import com.budget.dto.UpdateItemRequest;
+import com.budget.model.Budget;
 import com.budget.model.BudgetItem;
 import com.budget.model.Section;
 import com.budget.repository.BudgetItemRepository;
@@ -19,6 +20,7 @@ public class BudgetItemService {
 
     private final BudgetItemRepository budgetItemRepository;
     private final SectionService sectionService;
+    private final BudgetCacheEvictor budgetCacheEvictor;
 
     @Transactional
     public BudgetItemDTO createItem(CreateItemRequest request) {
@@ -34,6 +36,7 @@ public class BudgetItemService {
         item.setSection(section);
 
         item = budgetItemRepository.save(item);
+        evictBudgetOf(section);
         return BudgetItemDTO.fromEntity(item);
     }
 
@@ -56,14 +59,20 @@ public class BudgetItemService {
         }
 
         item = budgetItemRepository.save(item);
+        evictBudgetOf(item.getSection());
         return BudgetItemDTO.fromEntity(item);
     }
 
     @Transactional
     public void deleteItem(Long id) {
-        if (!budgetItemRepository.existsById(id)) {
-            throw new EntityNotFoundException("Budget item not found with id: " + id);
-        }
-        budgetItemRepository.deleteById(id);
+        BudgetItem item = budgetItemRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Budget item not found with id: " + id));
+        evictBudgetOf(item.getSection());
+        budgetItemRepository.delete(item);
+    }
+
+    private void evictBudgetOf(Section section) {
+        Budget budget = section.getBudget();
+        budgetCacheEvictor.evict(budget.getYear(), budget.getMonth());
     }
 }
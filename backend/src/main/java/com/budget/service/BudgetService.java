@@ -1,38 +1,70 @@
 package com.budget.service;
 
+import com.budget.config.CacheConfig;
 import com.budget.dto.BudgetDTO;
+import com.budget.dto.BudgetRangeSummaryDTO;
 import com.budget.dto.BudgetItemDTO;
+import com.budget.dto.MonthTotalsDTO;
 import com.budget.dto.SectionDTO;
 import com.budget.dto.YearlySummaryDTO;
 import com.budget.model.Budget;
 import com.budget.model.BudgetItem;
 import com.budget.model.Plan;
 import com.budget.model.Section;
+import com.budget.repository.BudgetItemActualsRepository;
+import com.budget.repository.BudgetProvisioningWriter;
 import com.budget.repository.BudgetRepository;
+import com.budget.repository.BudgetSummaryRepository;
 import com.budget.repository.PlanRepository;
-import com.budget.repository.TransactionRepository;
+import com.budget.repository.SectionRepository;
 import jakarta.persistence.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
-import java.time.LocalDate;
 import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 
 @Service
-@RequiredArgsConstructor
 public class BudgetService {
 
     private final BudgetRepository budgetRepository;
-    private final TransactionRepository transactionRepository;
+    private final SectionRepository sectionRepository;
+    private final BudgetItemActualsRepository budgetItemActualsRepository;
+    private final BudgetSummaryRepository budgetSummaryRepository;
+    private final BudgetProvisioningWriter budgetProvisioningWriter;
     private final PlanRepository planRepository;
+    private final CacheGenerations cacheGenerations;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public BudgetService(BudgetRepository budgetRepository,
+                         SectionRepository sectionRepository,
+                         BudgetItemActualsRepository budgetItemActualsRepository,
+                         BudgetSummaryRepository budgetSummaryRepository,
+                         BudgetProvisioningWriter budgetProvisioningWriter,
+                         PlanRepository planRepository,
+                         CacheGenerations cacheGenerations,
+                         PlatformTransactionManager transactionManager) {
+        this.budgetRepository = budgetRepository;
+        this.sectionRepository = sectionRepository;
+        this.budgetItemActualsRepository = budgetItemActualsRepository;
+        this.budgetSummaryRepository = budgetSummaryRepository;
+        this.budgetProvisioningWriter = budgetProvisioningWriter;
+        this.planRepository = planRepository;
+        this.cacheGenerations = cacheGenerations;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
 
     // Section name -> (isIncome, items[])
     private static final Map<String, SectionConfig> DEFAULT_SECTIONS = new LinkedHashMap<>();
@@ -85,28 +117,25 @@ public class BudgetService {
         }
     }
 
-    @Transactional(readOnly = true)
+    // Assembled DTOs are cached per month; write paths evict through BudgetCacheEvictor. The
+    // transaction runs inside the cache lookup so only committed trees are ever cached.
     public BudgetDTO getBudget(Integer year, Integer month) {
-        Budget budget = budgetRepository.findByYearAndMonthWithSectionsAndItems(year, month)
-                .orElse(null);
-
-        if (budget == null) {
-            return null;
-        }
-
-        // Populate actual amounts from transactions
-        populateActualAmountsFromTransactions(budget, year, month);
-
-        BudgetDTO dto = BudgetDTO.fromEntity(budget);
-        populatePlanIds(dto, year, month);
-        return dto;
+        return cacheGenerations.get(CacheConfig.BUDGETS, BudgetCacheEvictor.key(year, month),
+                () -> readOnlyTransaction.execute(status -> findBudgetTree(year, month)
+                        .map(budget -> toBudgetDTO(budget, year, month))
+                        .orElse(null)));
     }
 
-    @Transactional
     public BudgetDTO getOrCreateBudget(Integer year, Integer month) {
-        Budget budget = budgetRepository.findByYearAndMonthWithSectionsAndItems(year, month)
-                .orElseGet(() -> createBudgetWithDefaults(year, month));
+        return cacheGenerations.get(CacheConfig.BUDGETS, BudgetCacheEvictor.key(year, month),
+                () -> transactionTemplate.execute(status -> {
+                    Budget budget = findBudgetTree(year, month)
+                            .orElseGet(() -> createBudgetWithDefaults(year, month));
+                    return toBudgetDTO(budget, year, month);
+                }));
+    }
 
+    private BudgetDTO toBudgetDTO(Budget budget, Integer year, Integer month) {
         // Populate actual amounts from transactions
         populateActualAmountsFromTransactions(budget, year, month);
 
@@ -115,6 +144,19 @@ public class BudgetService {
         return dto;
     }
 
+    // Budget -> sections -> items in exactly two statements, whatever the section count: the
+    // budget with its sections, then all of their items, which Hibernate attaches to the sections
+    // already in the persistence context
+    private Optional<Budget> findBudgetTree(Integer year, Integer month) {
+        Optional<Budget> budget = budgetRepository.findByYearAndMonthWithSections(year, month);
+        budget.ifPresent(b -> {
+            if (!b.getSections().isEmpty()) {
+                sectionRepository.findByBudgetIdWithItems(b.getId());
+            }
+        });
+        return budget;
+    }
+
     private void populatePlanIds(BudgetDTO budgetDTO, Integer year, Integer month) {
         // Collect all budget item IDs
         List<Long> budgetItemIds = budgetDTO.getSections().stream()
@@ -144,21 +186,8 @@ public class BudgetService {
     }
 
     private void populateActualAmountsFromTransactions(Budget budget, Integer year, Integer month) {
-        // Get date range for the month
-        YearMonth yearMonth = YearMonth.of(year, month);
-        LocalDate startDate = yearMonth.atDay(1);
-        LocalDate endDate = yearMonth.atEndOfMonth();
-
-        // Get transaction sums grouped by budget item ID
-        List<Object[]> transactionSums = transactionRepository.sumAmountsByBudgetItemAndDateRange(startDate, endDate);
-
-        // Build a map of budgetItemId -> signed sum (income positive, expense negative)
-        Map<Long, BigDecimal> actualAmounts = new HashMap<>();
-        for (Object[] row : transactionSums) {
-            Long itemId = (Long) row[0];
-            BigDecimal sum = (BigDecimal) row[1];
-            actualAmounts.put(itemId, sum);
-        }
+        // budgetItemId -> signed sum (income positive, expense negative), kept current on every transaction write
+        Map<Long, BigDecimal> actualAmounts = budgetItemActualsRepository.findAmountsByYearAndMonth(year, month);
 
         // Update each budget item's actual amount by matching ID
         for (Section section : budget.getSections()) {
@@ -173,52 +202,76 @@ public class BudgetService {
         }
     }
 
+    // copyFrom: clone that month's layout and plans instead of the hardcoded defaults
     @Transactional
-    public BudgetDTO createBudget(Integer year, Integer month) {
-        if (budgetRepository.existsByYearAndMonth(year, month)) {
+    public BudgetDTO createBudget(Integer year, Integer month, YearMonth copyFrom) {
+        Budget source = copyFrom != null ? getSourceBudget(copyFrom) : null;
+        Long budgetId = budgetProvisioningWriter.insertBudgetIfAbsent(year, month);
+        if (budgetId == null) {
             throw new IllegalArgumentException("Budget already exists for " + year + "/" + month);
         }
+        fillLayout(budgetId, YearMonth.of(year, month), source);
 
-        Budget budget = createBudgetWithDefaults(year, month);
+        Budget budget = findBudgetTree(year, month)
+                .orElseThrow(() -> new EntityNotFoundException("Budget not found for " + year + "/" + month));
         return BudgetDTO.fromEntity(budget);
     }
 
-    private Budget createBudgetWithDefaults(Integer year, Integer month) {
-        Budget budget = new Budget(year, month);
-        budget.setSections(new LinkedHashSet<>());
-
-        int sectionOrder = 1;
-        for (Map.Entry<String, SectionConfig> entry : DEFAULT_SECTIONS.entrySet()) {
-            String sectionName = entry.getKey();
-            SectionConfig config = entry.getValue();
-
-            Section section = new Section();
-            section.setName(sectionName);
-            section.setDisplayOrder(sectionOrder++);
-            section.setIsIncome(config.isIncome);
-            section.setBudget(budget);
-            section.setItems(new LinkedHashSet<>());
-
-            int itemOrder = 1;
-            for (String itemName : config.items) {
-                BudgetItem item = new BudgetItem();
-                item.setName(itemName);
-                item.setPlannedAmount(BigDecimal.ZERO);
-                item.setActualAmount(BigDecimal.ZERO);
-                item.setDisplayOrder(itemOrder++);
-                item.setSection(section);
-                section.getItems().add(item);
+    // Pre-creates every missing month of the year in one transaction; existing months are left alone
+    @Transactional
+    public YearlySummaryDTO createYear(Integer year, YearMonth copyFrom) {
+        Budget source = copyFrom != null ? getSourceBudget(copyFrom) : null;
+        for (int month = 1; month <= 12; month++) {
+            Long budgetId = budgetProvisioningWriter.insertBudgetIfAbsent(year, month);
+            if (budgetId != null) {
+                fillLayout(budgetId, YearMonth.of(year, month), source);
             }
+        }
+        return getYearlySummary(year);
+    }
+
+    private Budget getSourceBudget(YearMonth copyFrom) {
+        return budgetRepository.findByYearAndMonth(copyFrom.getYear(), copyFrom.getMonthValue())
+                .orElseThrow(() -> new EntityNotFoundException("No budget to copy for " + copyFrom));
+    }
+
+    private void fillLayout(Long budgetId, YearMonth target, Budget source) {
+        if (source == null) {
+            insertDefaultLayout(budgetId);
+        } else {
+            budgetProvisioningWriter.copyLayout(source.getId(), YearMonth.of(source.getYear(), source.getMonth()),
+                    budgetId, target);
+        }
+    }
 
-            budget.getSections().add(section);
+    // Race-free: the budget row is claimed with ON CONFLICT DO NOTHING and the default layout is
+    // inserted set-wise by whichever caller won; everyone then reads the committed tree
+    private Budget createBudgetWithDefaults(Integer year, Integer month) {
+        Long budgetId = budgetProvisioningWriter.insertBudgetIfAbsent(year, month);
+        if (budgetId != null) {
+            insertDefaultLayout(budgetId);
         }
+        return findBudgetTree(year, month)
+                .orElseThrow(() -> new IllegalStateException("Budget " + year + "/" + month + " was not created"));
+    }
 
-        return budgetRepository.save(budget);
+    private void insertDefaultLayout(Long budgetId) {
+        List<String> names = new ArrayList<>();
+        List<Boolean> isIncome = new ArrayList<>();
+        List<List<String>> items = new ArrayList<>();
+        for (Map.Entry<String, SectionConfig> entry : DEFAULT_SECTIONS.entrySet()) {
+            names.add(entry.getKey());
+            isIncome.add(entry.getValue().isIncome);
+            items.add(List.of(entry.getValue().items));
+        }
+        budgetProvisioningWriter.insertLayout(budgetId, names, isIncome, items);
     }
 
     @Transactional(readOnly = true)
     public YearlySummaryDTO getYearlySummary(Integer year) {
-        List<Budget> budgets = budgetRepository.findByYearOrderByMonthAsc(year);
+        // One grouped query over budget -> section -> item -> monthly actuals for the whole year
+        List<MonthTotalsDTO> monthTotals = budgetSummaryRepository.findMonthTotals(
+                YearMonth.of(year, 1), YearMonth.of(year, 12));
 
         YearlySummaryDTO summary = new YearlySummaryDTO();
         summary.setYear(year);
@@ -230,31 +283,23 @@ public class BudgetService {
         BigDecimal totalPlannedExpenses = BigDecimal.ZERO;
         BigDecimal totalActualExpenses = BigDecimal.ZERO;
 
-        for (Budget budget : budgets) {
-            Budget fullBudget = budgetRepository.findByIdWithSectionsAndItems(budget.getId())
-                    .orElse(budget);
-
-            // Populate actual amounts from transactions
-            populateActualAmountsFromTransactions(fullBudget, year, budget.getMonth());
-
-            BudgetDTO budgetDTO = BudgetDTO.fromEntity(fullBudget);
-
+        for (MonthTotalsDTO totals : monthTotals) {
             YearlySummaryDTO.MonthSummaryDTO monthSummary = new YearlySummaryDTO.MonthSummaryDTO();
-            monthSummary.setMonth(budget.getMonth());
-            monthSummary.setBudgetId(budget.getId());
-            monthSummary.setPlannedIncome(budgetDTO.getTotalPlannedIncome());
-            monthSummary.setActualIncome(budgetDTO.getTotalIncome());
-            monthSummary.setPlannedExpenses(budgetDTO.getTotalPlannedExpenses());
-            monthSummary.setActualExpenses(budgetDTO.getTotalExpenses());
-            monthSummary.setPlannedSavings(budgetDTO.getTotalPlannedIncome().subtract(budgetDTO.getTotalPlannedExpenses()));
-            monthSummary.setActualSavings(budgetDTO.getTotalIncome().subtract(budgetDTO.getTotalExpenses()));
+            monthSummary.setMonth(totals.getMonth());
+            monthSummary.setBudgetId(totals.getBudgetId());
+            monthSummary.setPlannedIncome(totals.getPlannedIncome());
+            monthSummary.setActualIncome(totals.getActualIncome());
+            monthSummary.setPlannedExpenses(totals.getPlannedExpenses());
+            monthSummary.setActualExpenses(totals.getActualExpenses());
+            monthSummary.setPlannedSavings(totals.getPlannedSavings());
+            monthSummary.setActualSavings(totals.getActualSavings());
 
             months.add(monthSummary);
 
-            totalPlannedIncome = totalPlannedIncome.add(budgetDTO.getTotalPlannedIncome());
-            totalActualIncome = totalActualIncome.add(budgetDTO.getTotalIncome());
-            totalPlannedExpenses = totalPlannedExpenses.add(budgetDTO.getTotalPlannedExpenses());
-            totalActualExpenses = totalActualExpenses.add(budgetDTO.getTotalExpenses());
+            totalPlannedIncome = totalPlannedIncome.add(totals.getPlannedIncome());
+            totalActualIncome = totalActualIncome.add(totals.getActualIncome());
+            totalPlannedExpenses = totalPlannedExpenses.add(totals.getPlannedExpenses());
+            totalActualExpenses = totalActualExpenses.add(totals.getActualExpenses());
         }
 
         summary.setMonths(months);
@@ -268,6 +313,38 @@ public class BudgetService {
         return summary;
     }
 
+    // Per-month totals for an arbitrary range in one aggregation; breakdown=section adds section rows
+    @Transactional(readOnly = true)
+    public BudgetRangeSummaryDTO getRangeSummary(YearMonth from, YearMonth to, String breakdown) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        List<MonthTotalsDTO> months;
+        if (breakdown == null || breakdown.isBlank()) {
+            months = budgetSummaryRepository.findMonthTotals(from, to);
+        } else if ("section".equalsIgnoreCase(breakdown)) {
+            months = budgetSummaryRepository.findMonthTotalsBySection(from, to);
+        } else {
+            throw new IllegalArgumentException("Unsupported breakdown: " + breakdown);
+        }
+
+        BudgetRangeSummaryDTO summary = new BudgetRangeSummaryDTO();
+        summary.setFrom(from);
+        summary.setTo(to);
+        summary.setMonths(months);
+        summary.setTotalPlannedIncome(sum(months, MonthTotalsDTO::getPlannedIncome));
+        summary.setTotalActualIncome(sum(months, MonthTotalsDTO::getActualIncome));
+        summary.setTotalPlannedExpenses(sum(months, MonthTotalsDTO::getPlannedExpenses));
+        summary.setTotalActualExpenses(sum(months, MonthTotalsDTO::getActualExpenses));
+        summary.setTotalPlannedSavings(summary.getTotalPlannedIncome().subtract(summary.getTotalPlannedExpenses()));
+        summary.setTotalActualSavings(summary.getTotalActualIncome().subtract(summary.getTotalActualExpenses()));
+        return summary;
+    }
+
+    private static BigDecimal sum(List<MonthTotalsDTO> months, Function<MonthTotalsDTO, BigDecimal> field) {
+        return months.stream().map(field).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
     @Transactional(readOnly = true)
     public Budget getBudgetEntity(Long id) {
         return budgetRepository.findById(id)
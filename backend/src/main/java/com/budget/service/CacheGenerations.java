@@ -0,0 +1,78 @@
+package com.budget.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Read-through caching that cannot resurrect stale values. Evicting after commit is not enough
+// on its own: a read that loaded the old state before the write committed can still put it after
+// the eviction. Every invalidation (local, or received from another instance) stamps its key with
+// a clock tick; a reader notes the clock before loading and, after putting, evicts its own value
+// again if the key was invalidated in between.
+@Component
+@RequiredArgsConstructor
+public class CacheGenerations {
+
+    private static final String ALL_KEYS = "*";
+
+    private final CacheManager cacheManager;
+    private final AtomicLong clock = new AtomicLong();
+    // "<cache>|<key>" (or "<cache>|*" for a clear) -> tick of its latest invalidation. One entry
+    // per key ever invalidated, which for budget months stays small.
+    private final Map<String, Long> invalidatedAt = new ConcurrentHashMap<>();
+
+    // Null results are not cached
+    @SuppressWarnings("unchecked")
+    public <T> T get(String cacheName, String key, Supplier<T> loader) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.get();
+        }
+        Cache.ValueWrapper hit = cache.get(key);
+        if (hit != null) {
+            return (T) hit.get();
+        }
+
+        long loadedAt = clock.get();
+        T value = loader.get();
+        if (value != null) {
+            cache.put(key, value);
+            if (invalidatedSince(cacheName, key, loadedAt)) {
+                cache.evict(key);
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(String cacheName, String key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            stamp(cacheName, key);
+            cache.evict(key);
+        }
+    }
+
+    public void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            stamp(cacheName, ALL_KEYS);
+            cache.clear();
+        }
+    }
+
+    // The stamp must precede the eviction, so a put that lands after the eviction sees it
+    private void stamp(String cacheName, String key) {
+        invalidatedAt.merge(cacheName + '|' + key, clock.incrementAndGet(), Math::max);
+    }
+
+    private boolean invalidatedSince(String cacheName, String key, long tick) {
+        return invalidatedAt.getOrDefault(cacheName + '|' + key, 0L) > tick
+            || invalidatedAt.getOrDefault(cacheName + '|' + ALL_KEYS, 0L) > tick;
+    }
+}
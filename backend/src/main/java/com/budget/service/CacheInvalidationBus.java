@@ -0,0 +1,177 @@
+package com.budget.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+
+// Cross-instance cache invalidation over Postgres LISTEN/NOTIFY. publish() issues pg_notify in the
+// caller's transaction, so Postgres delivers it to every instance only once the write commits
+// (and never if it rolls back). Each instance keeps one connection LISTENing and evicts the named
+// keys from its local caches through CacheGenerations, so a local read still loading from before
+// the remote commit drops its value too. Payload: "<cache>|<key>,<key>..." or "<cache>|*" to clear.
+@Slf4j
+@Component
+public class CacheInvalidationBus {
+
+    static final String CHANNEL = "cache_invalidation";
+
+    private static final String ALL_KEYS = "*";
+    // NOTIFY payloads must stay under 8000 bytes; split larger key sets across several notifications
+    private static final int MAX_PAYLOAD_CHARS = 7000;
+    private static final int POLL_TIMEOUT_MILLIS = 10_000;
+    private static final long RECONNECT_DELAY_MILLIS = 5_000;
+
+    private final CacheManager cacheManager;
+    private final CacheGenerations cacheGenerations;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final boolean enabled;
+    private final String datasourceUrl;
+
+    private volatile boolean running;
+    private Thread listenerThread;
+
+    // The listener holds one pooled connection for the life of the application
+    public CacheInvalidationBus(CacheManager cacheManager,
+                                CacheGenerations cacheGenerations,
+                                JdbcTemplate jdbcTemplate,
+                                DataSource dataSource,
+                                @Value("${cache.invalidation.enabled:true}") boolean enabled,
+                                @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this.cacheManager = cacheManager;
+        this.cacheGenerations = cacheGenerations;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.datasourceUrl = datasourceUrl;
+    }
+
+    public void publish(String cacheName, Collection<String> keys) {
+        if (!enabled || keys.isEmpty()) {
+            return;
+        }
+        StringBuilder payload = new StringBuilder(cacheName).append('|');
+        int headerLength = payload.length();
+        for (String key : keys) {
+            if (payload.length() > headerLength && payload.length() + key.length() + 1 > MAX_PAYLOAD_CHARS) {
+                notify(payload.toString());
+                payload.setLength(headerLength);
+            }
+            if (payload.length() > headerLength) {
+                payload.append(',');
+            }
+            payload.append(key);
+        }
+        notify(payload.toString());
+    }
+
+    public void publishClear(String cacheName) {
+        if (enabled) {
+            notify(cacheName + '|' + ALL_KEYS);
+        }
+    }
+
+    private void notify(String payload) {
+        jdbcTemplate.query("SELECT pg_notify(?, ?)", (RowCallbackHandler) rs -> { }, CHANNEL, payload);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (datasourceUrl.contains("-pooler")) {
+            log.warn("Cache invalidation is enabled but the datasource goes through a connection pooler, "
+                + "which drops LISTEN; other instances' writes will not evict local caches");
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean reconnecting = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Anything published while we were disconnected is lost, so start clean
+                if (reconnecting) {
+                    clearAll();
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            try {
+                                apply(notification.getParameter());
+                            } catch (RuntimeException e) {
+                                log.warn("Could not apply cache invalidation '{}'", notification.getParameter(), e);
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                // Any failure restarts the loop; letting it escape would end the thread for good
+                if (!running) {
+                    return;
+                }
+                log.warn("Cache invalidation listener failed; reconnecting", e);
+                reconnecting = true;
+                try {
+                    Thread.sleep(RECONNECT_DELAY_MILLIS);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(String payload) {
+        int separator = payload.indexOf('|');
+        if (separator < 0) {
+            return;
+        }
+        String cacheName = payload.substring(0, separator);
+        String keys = payload.substring(separator + 1);
+        if (ALL_KEYS.equals(keys)) {
+            cacheGenerations.clear(cacheName);
+            return;
+        }
+        for (String key : keys.split(",")) {
+            cacheGenerations.invalidate(cacheName, key);
+        }
+    }
+
+    private void clearAll() {
+        for (String name : cacheManager.getCacheNames()) {
+            cacheGenerations.clear(name);
+        }
+    }
+}
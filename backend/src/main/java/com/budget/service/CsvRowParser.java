@@ -0,0 +1,100 @@
+package com.budget.service;
+
+import com.budget.dto.CsvImportOptions;
+import com.budget.model.Section;
+import com.budget.model.Transaction;
+import com.budget.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+
+// Maps a CSV record onto a Transaction using the columnMapping/dateFormat import options
+class CsvRowParser {
+
+    private final Map<String, Integer> columnMapping;
+    private final DateTimeFormatter dateFormatter;
+
+    CsvRowParser(CsvImportOptions options) {
+        this.columnMapping = options.getColumnMapping();
+        this.dateFormatter = DateTimeFormatter.ofPattern(
+            options.getDateFormat() != null ? options.getDateFormat() : "yyyy-MM-dd"
+        );
+    }
+
+    // Parses and categorizes a single CSV row; returns null when the row is skipped
+    Transaction parse(List<String> row, ImportLookupCache lookups) {
+        try {
+            Transaction transaction = new Transaction();
+
+            // Parse date
+            Integer dateCol = columnMapping.get("date");
+            if (dateCol != null && dateCol < row.size()) {
+                String dateStr = row.get(dateCol).trim();
+                transaction.setTransactionDate(LocalDate.parse(dateStr, dateFormatter));
+            } else {
+                return null; // Skip rows without date
+            }
+
+            // Parse merchant
+            Integer merchantCol = columnMapping.get("merchant");
+            if (merchantCol != null && merchantCol < row.size()) {
+                transaction.setMerchant(row.get(merchantCol).trim());
+            } else {
+                transaction.setMerchant("Unknown");
+            }
+
+            // Parse amount; positive = INCOME, negative = EXPENSE
+            Integer amountCol = columnMapping.get("amount");
+            if (amountCol != null && amountCol < row.size()) {
+                String amountStr = row.get(amountCol).trim()
+                    .replace("$", "")
+                    .replace(",", "")
+                    .replace("(", "-")
+                    .replace(")", "");
+                BigDecimal rawAmount = new BigDecimal(amountStr);
+                transaction.setAmount(rawAmount.abs());
+                transaction.setType(rawAmount.signum() >= 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+            } else {
+                return null; // Skip rows without amount
+            }
+
+            // Parse note (optional)
+            Integer noteCol = columnMapping.get("note");
+            if (noteCol != null && noteCol < row.size()) {
+                transaction.setNote(row.get(noteCol).trim());
+            }
+
+            // Parse category/section (optional) - match within this transaction's budget month only if it exists
+            LocalDate txDate = transaction.getTransactionDate();
+            Integer categoryCol = columnMapping.get("category");
+            Section matchedSection = null;
+            if (categoryCol != null && categoryCol < row.size()) {
+                String categoryName = row.get(categoryCol).trim();
+                if (!categoryName.isEmpty()) {
+                    matchedSection = lookups.findSection(txDate, categoryName);
+                    if (matchedSection != null) {
+                        transaction.setSection(matchedSection);
+                    }
+                }
+            }
+
+            // Parse budget item (optional) - match or auto-create within the matched section
+            Integer budgetItemCol = columnMapping.get("budgetItem");
+            if (budgetItemCol != null && budgetItemCol < row.size() && matchedSection != null) {
+                String budgetItemName = row.get(budgetItemCol).trim();
+                if (!budgetItemName.isEmpty()) {
+                    transaction.setBudgetItem(lookups.findOrCreateItem(txDate, matchedSection, budgetItemName));
+                }
+            }
+
+            return transaction;
+        } catch (DateTimeParseException | NumberFormatException e) {
+            // Skip invalid rows
+            return null;
+        }
+    }
+}
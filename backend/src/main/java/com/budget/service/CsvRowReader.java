@@ -0,0 +1,114 @@
+package com.budget.service;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Forward-only RFC 4180 tokenizer: reads one record at a time so memory stays
+// bounded by the longest row, not the size of the file.
+public class CsvRowReader implements Closeable {
+
+    private final Reader reader;
+    private int pushback = -2;
+    private boolean started;
+    private long rowNumber;
+
+    public CsvRowReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader, 64 * 1024);
+    }
+
+    public long getRowNumber() {
+        return rowNumber;
+    }
+
+    // Returns the next record, or null at end of input. Blank lines are skipped.
+    public List<String> readRow() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        boolean sawAnything = false;
+
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                if (!sawAnything) {
+                    return null;
+                }
+                fields.add(current.toString().trim());
+                rowNumber++;
+                return fields;
+            }
+
+            if (inQuotes) {
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        current.append('"');
+                    } else {
+                        inQuotes = false;
+                        unread(next);
+                    }
+                } else {
+                    current.append((char) c);
+                }
+                continue;
+            }
+
+            if (c == '"') {
+                inQuotes = true;
+                sawAnything = true;
+            } else if (c == ',') {
+                fields.add(current.toString().trim());
+                current.setLength(0);
+                sawAnything = true;
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        unread(next);
+                    }
+                }
+                if (!sawAnything && current.toString().isBlank()) {
+                    current.setLength(0);
+                    continue; // Skip blank lines
+                }
+                fields.add(current.toString().trim());
+                rowNumber++;
+                return fields;
+            } else {
+                current.append((char) c);
+                if (!Character.isWhitespace(c)) {
+                    sawAnything = true;
+                }
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        if (pushback != -2) {
+            int c = pushback;
+            pushback = -2;
+            return c;
+        }
+        int c = reader.read();
+        if (!started) {
+            started = true;
+            if (c == '\uFEFF') {
+                c = reader.read(); // Skip UTF-8 byte order mark written by spreadsheet exports
+            }
+        }
+        return c;
+    }
+
+    private void unread(int c) {
+        pushback = c;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
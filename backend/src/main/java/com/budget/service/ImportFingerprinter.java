@@ -0,0 +1,48 @@
+package com.budget.service;
+
+import com.budget.model.Transaction;
+import com.budget.model.TransactionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+
+// Content identity for imported rows: (date, signed amount, normalized merchant, ordinal).
+// The ordinal counts identical rows within the same day so two genuine $4.50 coffees on
+// one day stay distinct, while re-importing an overlapping export maps onto the same keys.
+class ImportFingerprinter {
+
+    private final Map<String, Integer> ordinals = new HashMap<>();
+    private final MessageDigest digest;
+
+    ImportFingerprinter() {
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    String fingerprint(Transaction transaction) {
+        BigDecimal signed = transaction.getType() == TransactionType.EXPENSE
+                ? transaction.getAmount().negate()
+                : transaction.getAmount();
+        String base = transaction.getTransactionDate() + "|"
+                + signed.setScale(2, RoundingMode.HALF_UP).toPlainString() + "|"
+                + normalizeMerchant(transaction.getMerchant());
+        int ordinal = ordinals.merge(base, 1, Integer::sum);
+
+        byte[] hash = digest.digest((base + "|" + ordinal).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(hash);
+    }
+
+    private static String normalizeMerchant(String merchant) {
+        return merchant.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+}
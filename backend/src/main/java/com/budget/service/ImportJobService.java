@@ -0,0 +1,264 @@
+package com.budget.service;
+
+import com.budget.dto.CsvImportOptions;
+import com.budget.dto.CsvImportResultDTO;
+import com.budget.dto.ImportJobDTO;
+import com.budget.model.ImportJobStatus;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Runs large CSV imports off the request thread. Each chunk of rows commits in its own
+// transaction, so a job only holds a pooled connection while a chunk is being written.
+// Committed chunks stay committed on cancel/failure; re-running the file is safe because
+// rows are deduplicated by import fingerprint.
+@Slf4j
+@Service
+public class ImportJobService {
+
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    private final TransactionService transactionService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final int chunkRows;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    // max-concurrent should stay well below the Hikari pool size so interactive requests
+    // always find a free connection
+    public ImportJobService(TransactionService transactionService,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${import.jobs.max-concurrent:1}") int maxConcurrent,
+                            @Value("${import.jobs.queue-capacity:10}") int queueCapacity,
+                            @Value("${import.jobs.chunk-rows:5000}") int chunkRows) {
+        this.transactionService = transactionService;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkRows = chunkRows;
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("csv-import-");
+        executor.initialize();
+    }
+
+    public ImportJobDTO submit(MultipartFile file, CsvImportOptions options) throws IOException {
+        purgeFinishedJobs();
+
+        // The upload is gone once the request completes, so spool it to our own temp file
+        Path spool = Files.createTempFile("csv-import-", ".csv");
+        file.transferTo(spool);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), file.getOriginalFilename(),
+                Files.size(spool));
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, spool, options));
+        } catch (RuntimeException e) {
+            jobs.remove(job.id);
+            Files.deleteIfExists(spool);
+            throw e;
+        }
+        return job.toDTO();
+    }
+
+    public ImportJobDTO getJob(String jobId) {
+        return findJob(jobId).toDTO();
+    }
+
+    public ImportJobDTO cancel(String jobId) {
+        ImportJob job = findJob(jobId);
+        job.cancelRequested = true;
+        return job.toDTO();
+    }
+
+    private ImportJob findJob(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new EntityNotFoundException("Import job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(ImportJob job, Path spool, CsvImportOptions options) {
+        if (job.cancelRequested) {
+            job.finish(ImportJobStatus.CANCELLED, null);
+            deleteQuietly(spool);
+            return;
+        }
+        job.status = ImportJobStatus.RUNNING;
+        job.startNanos = System.nanoTime();
+
+        CsvRowParser parser = new CsvRowParser(options);
+        ImportSession session = transactionService.newImportSession();
+
+        try (CountingInputStream input = new CountingInputStream(Files.newInputStream(spool));
+             CsvRowReader reader = new CsvRowReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            if (options.isSkipFirstRow()) {
+                reader.readRow();
+            }
+
+            boolean more = true;
+            while (more) {
+                if (job.cancelRequested) {
+                    job.finish(ImportJobStatus.CANCELLED, null);
+                    return;
+                }
+                more = Boolean.TRUE.equals(transactionTemplate.execute(status -> importChunk(reader, parser, session)));
+                job.update(session.result(), input.count);
+            }
+            job.finish(ImportJobStatus.COMPLETED, null);
+        } catch (Exception e) {
+            log.error("Import job {} failed", job.id, e);
+            job.finish(ImportJobStatus.FAILED, e.getMessage());
+        } finally {
+            deleteQuietly(spool);
+        }
+    }
+
+    // Imports up to chunkRows rows; returns false once the input is exhausted
+    private boolean importChunk(CsvRowReader reader, CsvRowParser parser, ImportSession session) {
+        try {
+            for (int i = 0; i < chunkRows; i++) {
+                List<String> row = reader.readRow();
+                if (row == null) {
+                    session.flush();
+                    return false;
+                }
+                session.accept(parser.parse(row, session.lookups));
+            }
+            session.flush();
+            return true;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read import file: " + e.getMessage(), e);
+        }
+    }
+
+    private void purgeFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt != null && job.finishedAt.isBefore(cutoff));
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Temp directory cleanup will get it
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(job -> job.cancelRequested = true);
+        executor.shutdown();
+    }
+
+    private static class ImportJob {
+        final String id;
+        final String fileName;
+        final long totalBytes;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+
+        volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+        volatile boolean cancelRequested;
+        volatile long startNanos;
+        volatile CsvImportResultDTO progress;
+        volatile long bytesRead;
+        volatile String error;
+        volatile LocalDateTime finishedAt;
+
+        ImportJob(String id, String fileName, long totalBytes) {
+            this.id = id;
+            this.fileName = fileName;
+            this.totalBytes = totalBytes;
+        }
+
+        void update(CsvImportResultDTO progress, long bytesRead) {
+            this.progress = progress;
+            this.bytesRead = bytesRead;
+        }
+
+        void finish(ImportJobStatus finalStatus, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.status = finalStatus;
+        }
+
+        ImportJobDTO toDTO() {
+            ImportJobDTO dto = new ImportJobDTO();
+            dto.setJobId(id);
+            dto.setFileName(fileName);
+            dto.setStatus(status);
+            dto.setTotalBytes(totalBytes);
+            dto.setBytesRead(bytesRead);
+            dto.setError(error);
+            dto.setSubmittedAt(submittedAt);
+            dto.setFinishedAt(finishedAt);
+
+            CsvImportResultDTO snapshot = progress;
+            if (snapshot != null) {
+                dto.setRowsProcessed(snapshot.getRowsRead());
+                dto.setImported(snapshot.getImported());
+                dto.setDuplicates(snapshot.getDuplicates());
+                dto.setSkipped(snapshot.getSkipped());
+                dto.setRowsPerSecond(snapshot.getRowsPerSecond());
+            }
+
+            // ETA extrapolated from the share of the file consumed so far
+            if (status == ImportJobStatus.RUNNING && bytesRead > 0 && totalBytes > bytesRead) {
+                double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+                dto.setEtaSeconds(Math.round(elapsedSeconds * (totalBytes - bytesRead) / bytesRead));
+            } else if (finishedAt != null) {
+                dto.setEtaSeconds(0L);
+            }
+            return dto;
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        volatile long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
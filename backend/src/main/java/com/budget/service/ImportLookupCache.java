@@ -0,0 +1,95 @@
+package com.budget.service;
+
+import com.budget.model.Budget;
+import com.budget.model.BudgetItem;
+import com.budget.model.Section;
+import com.budget.repository.BudgetItemRepository;
+import com.budget.repository.BudgetRepository;
+import com.budget.repository.SectionRepository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Per-import cache of budget month -> section/item name maps. Each distinct month costs
+// a fixed three queries (budget, sections, items) no matter how many rows reference it.
+class ImportLookupCache {
+
+    private final BudgetRepository budgetRepository;
+    private final SectionRepository sectionRepository;
+    private final BudgetItemRepository budgetItemRepository;
+
+    private final Map<YearMonth, MonthLookup> months = new HashMap<>();
+
+    ImportLookupCache(BudgetRepository budgetRepository,
+                      SectionRepository sectionRepository,
+                      BudgetItemRepository budgetItemRepository) {
+        this.budgetRepository = budgetRepository;
+        this.sectionRepository = sectionRepository;
+        this.budgetItemRepository = budgetItemRepository;
+    }
+
+    // Matches a section by name within the transaction's budget month; never creates budgets or sections
+    Section findSection(LocalDate transactionDate, String sectionName) {
+        MonthLookup lookup = months.computeIfAbsent(YearMonth.from(transactionDate), this::loadMonth);
+        return lookup.sections.get(key(sectionName));
+    }
+
+    // Matches a budget item by name within the section, auto-creating it when missing
+    BudgetItem findOrCreateItem(LocalDate transactionDate, Section section, String itemName) {
+        MonthLookup lookup = months.computeIfAbsent(YearMonth.from(transactionDate), this::loadMonth);
+        Map<String, BudgetItem> items = lookup.items.computeIfAbsent(section.getId(), id -> new HashMap<>());
+
+        BudgetItem matched = items.get(key(itemName));
+        if (matched == null) {
+            int nextOrder = lookup.maxItemOrder.getOrDefault(section.getId(), 0) + 1;
+            BudgetItem newItem = new BudgetItem();
+            newItem.setName(itemName);
+            newItem.setSection(section);
+            newItem.setPlannedAmount(BigDecimal.ZERO);
+            newItem.setActualAmount(BigDecimal.ZERO);
+            newItem.setDisplayOrder(nextOrder);
+            matched = budgetItemRepository.save(newItem);
+
+            items.put(key(itemName), matched);
+            lookup.maxItemOrder.put(section.getId(), nextOrder);
+        }
+        return matched;
+    }
+
+    private MonthLookup loadMonth(YearMonth month) {
+        MonthLookup lookup = new MonthLookup();
+        Budget budget = budgetRepository.findByYearAndMonth(month.getYear(), month.getMonthValue()).orElse(null);
+        if (budget == null) {
+            return lookup;
+        }
+
+        // First match in display order wins, same as the old per-row lookup
+        for (Section section : sectionRepository.findByBudgetIdOrderByDisplayOrderAsc(budget.getId())) {
+            lookup.sections.putIfAbsent(key(section.getName()), section);
+        }
+
+        List<BudgetItem> items = budgetItemRepository.findBySectionBudgetIdOrderByDisplayOrderAsc(budget.getId());
+        for (BudgetItem item : items) {
+            Long sectionId = item.getSection().getId();
+            lookup.items.computeIfAbsent(sectionId, id -> new HashMap<>())
+                    .putIfAbsent(key(item.getName()), item);
+            lookup.maxItemOrder.merge(sectionId, item.getDisplayOrder(), Math::max);
+        }
+        return lookup;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static class MonthLookup {
+        final Map<String, Section> sections = new HashMap<>();
+        final Map<Long, Map<String, BudgetItem>> items = new HashMap<>();
+        final Map<Long, Integer> maxItemOrder = new HashMap<>();
+    }
+}
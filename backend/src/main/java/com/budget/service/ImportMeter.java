@@ -0,0 +1,51 @@
+package com.budget.service;
+
+import com.budget.dto.CsvImportResultDTO;
+
+// Tracks throughput and peak heap while an import runs
+class ImportMeter {
+    private static final int HEAP_SAMPLE_INTERVAL = 1000;
+
+    private final long startNanos = System.nanoTime();
+    private long rowsRead;
+    private long imported;
+    private long duplicates;
+    private long skipped;
+    private long peakHeapBytes = usedHeap();
+
+    void rowRead(boolean valid) {
+        rowsRead++;
+        if (!valid) {
+            skipped++;
+        }
+        if (rowsRead % HEAP_SAMPLE_INTERVAL == 0) {
+            peakHeapBytes = Math.max(peakHeapBytes, usedHeap());
+        }
+    }
+
+    void batchWritten(int inserted, int duplicateCount) {
+        imported += inserted;
+        duplicates += duplicateCount;
+    }
+
+    CsvImportResultDTO toResult() {
+        peakHeapBytes = Math.max(peakHeapBytes, usedHeap());
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+
+        CsvImportResultDTO result = new CsvImportResultDTO();
+        result.setRowsRead(rowsRead);
+        result.setImported(imported);
+        result.setDuplicates(duplicates);
+        result.setSkipped(skipped);
+        result.setElapsedMillis(elapsedMillis);
+        result.setRowsPerSecond(rowsRead * 1000.0 / elapsedMillis);
+        result.setPeakHeapBytes(peakHeapBytes);
+        return result;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
+
@@ -0,0 +1,80 @@
+package com.budget.service;
+
+import com.budget.dto.CsvImportResultDTO;
+import com.budget.model.Transaction;
+import com.budget.repository.BudgetItemRepository;
+import com.budget.repository.BudgetRepository;
+import com.budget.repository.SectionRepository;
+import com.budget.repository.TransactionImportWriter;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Buffers parsed rows and writes them set-wise, deduplicating on the import fingerprint.
+// Lookups and fingerprint ordinals live for the whole import, so a session may span
+// several database transactions (see ImportJobService).
+class ImportSession {
+
+    static final int BATCH_SIZE = 500;
+
+    final ImportLookupCache lookups;
+
+    private final ImportFingerprinter fingerprinter = new ImportFingerprinter();
+    private final ImportMeter meter = new ImportMeter();
+    private final TransactionImportWriter writer;
+    private final BudgetCacheEvictor cacheEvictor;
+
+    private final List<Transaction> pending = new ArrayList<>(BATCH_SIZE);
+    private final List<String> pendingFingerprints = new ArrayList<>(BATCH_SIZE);
+
+    ImportSession(BudgetRepository budgetRepository,
+                  SectionRepository sectionRepository,
+                  BudgetItemRepository budgetItemRepository,
+                  TransactionImportWriter writer,
+                  BudgetCacheEvictor cacheEvictor) {
+        this.lookups = new ImportLookupCache(budgetRepository, sectionRepository, budgetItemRepository);
+        this.writer = writer;
+        this.cacheEvictor = cacheEvictor;
+    }
+
+    // Accepts a parsed row, or null for a row that failed to parse
+    void accept(Transaction transaction) {
+        meter.rowRead(transaction != null);
+        if (transaction == null) {
+            return;
+        }
+        pending.add(transaction);
+        pendingFingerprints.add(fingerprinter.fingerprint(transaction));
+        if (pending.size() >= BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        int inserted = writer.insertIgnoringDuplicates(pending, pendingFingerprints);
+        meter.batchWritten(inserted, pending.size() - inserted);
+        // Also covers budget items auto-created for these months by the lookups
+        Set<YearMonth> months = new HashSet<>();
+        for (Transaction transaction : pending) {
+            months.add(YearMonth.from(transaction.getTransactionDate()));
+        }
+        cacheEvictor.evict(months);
+        pending.clear();
+        pendingFingerprints.clear();
+    }
+
+    CsvImportResultDTO result() {
+        return meter.toResult();
+    }
+
+    CsvImportResultDTO finish() {
+        flush();
+        return meter.toResult();
+    }
+}
@@ -0,0 +1,171 @@
+package com.budget.service;
+
+import com.budget.dto.LedgerVerificationDTO;
+import com.budget.model.LedgerAccountType;
+import com.budget.repository.LedgerRepository;
+import com.budget.repository.LedgerRepository.Leg;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+// The only store of savings balances: every change is a balanced journal entry appended in the
+// caller's transaction, and balances are read back as snapshot plus tail. The record* methods
+// take the change to the named balance (negative when it goes down). Corrections post the
+// difference as a new entry. Callers serialize their own checks: fund row locks for a fund's
+// balance, SavingsPoolLock for anything that draws on UNALLOCATED.
+@Service
+public class LedgerService {
+
+    private static final long COUNTER_REF = 0L;
+
+    private final LedgerRepository ledgerRepository;
+    private final TransactionTemplate verifyTransaction;
+    private final int verifyThreads;
+
+    public LedgerService(LedgerRepository ledgerRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${ledger.verify-threads:4}") int verifyThreads) {
+        this.ledgerRepository = ledgerRepository;
+        this.verifyThreads = Math.max(1, verifyThreads);
+
+        // The checks of one partition all read the same database snapshot
+        this.verifyTransaction = new TransactionTemplate(transactionManager);
+        this.verifyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.verifyTransaction.setReadOnly(true);
+    }
+
+    // Money moved into (positive) or out of (negative) a savings account. The same amount joins
+    // (or leaves) the unallocated pool.
+    public void recordAccountChange(Long accountId, BigDecimal change, LocalDate date, String description) {
+        if (change.signum() == 0) {
+            return;
+        }
+        ledgerRepository.post(entryDate(date), description, List.of(
+                new Leg(LedgerAccountType.EXTERNAL, COUNTER_REF, change.negate()),
+                new Leg(LedgerAccountType.SAVINGS_ACCOUNT, accountId, change),
+                new Leg(LedgerAccountType.POOL, COUNTER_REF, change.negate()),
+                new Leg(LedgerAccountType.UNALLOCATED, COUNTER_REF, change)));
+    }
+
+    // Pool money assigned to (positive) or released from (negative) a fund
+    public void recordFundAllocation(Long fundId, BigDecimal change, LocalDate date, String description) {
+        post(LedgerAccountType.UNALLOCATED, COUNTER_REF, LedgerAccountType.SAVINGS_FUND, fundId,
+                change, date, description);
+    }
+
+    // Fund money spent (negative) or a spend reversed (positive). The accounts still hold the
+    // money until the withdrawal is logged against one, so it goes back to the pool meanwhile.
+    public void recordFundSpending(Long fundId, BigDecimal change, LocalDate date, String description) {
+        post(LedgerAccountType.UNALLOCATED, COUNTER_REF, LedgerAccountType.SAVINGS_FUND, fundId,
+                change, date, description);
+    }
+
+    public void recordFundTransfer(Long sourceFundId, Long destinationFundId, BigDecimal amount,
+                                   LocalDate date, String description) {
+        post(LedgerAccountType.SAVINGS_FUND, sourceFundId, LedgerAccountType.SAVINGS_FUND, destinationFundId,
+                amount, date, description);
+    }
+
+    // Latest snapshot plus the entries appended since
+    @Transactional(readOnly = true)
+    public BigDecimal getBalance(LedgerAccountType type, Long ref) {
+        return ledgerRepository.findBalance(type, ref != null ? ref : COUNTER_REF);
+    }
+
+    public BigDecimal getAccountBalance(Long accountId) {
+        return ledgerRepository.findBalance(LedgerAccountType.SAVINGS_ACCOUNT, accountId);
+    }
+
+    public Map<Long, BigDecimal> getAccountBalances(Collection<Long> accountIds) {
+        return ledgerRepository.findBalances(LedgerAccountType.SAVINGS_ACCOUNT, accountIds);
+    }
+
+    public BigDecimal getFundBalance(Long fundId) {
+        return ledgerRepository.findBalance(LedgerAccountType.SAVINGS_FUND, fundId);
+    }
+
+    public Map<Long, BigDecimal> getFundBalances(Collection<Long> fundIds) {
+        return ledgerRepository.findBalances(LedgerAccountType.SAVINGS_FUND, fundIds);
+    }
+
+    // Account total minus fund total; closed accounts and funds are always at zero
+    public BigDecimal getUnallocated() {
+        return ledgerRepository.findBalance(LedgerAccountType.UNALLOCATED, COUNTER_REF);
+    }
+
+    public BigDecimal getPoolTotal() {
+        return ledgerRepository.findBalance(LedgerAccountType.POOL, COUNTER_REF).negate();
+    }
+
+    // Advances every account with new legs to a fresh snapshot; briefly blocks ledger appends
+    @Scheduled(cron = "${ledger.snapshot.cron:0 0 3 * * *}")
+    @Transactional
+    public int takeSnapshot() {
+        return ledgerRepository.takeSnapshot();
+    }
+
+    // Replays the whole ledger, split by account/entry id across workers. Each entry's legs are
+    // written in one transaction and each partition reads one snapshot, so the result is exact
+    // even while writes continue.
+    public LedgerVerificationDTO verify() {
+        long started = System.currentTimeMillis();
+        int partitions = verifyThreads;
+
+        ExecutorService executor = Executors.newFixedThreadPool(partitions);
+        try {
+            List<CompletableFuture<LedgerVerificationDTO>> workers = IntStream.range(0, partitions)
+                .mapToObj(partition -> CompletableFuture.supplyAsync(
+                    () -> verifyPartition(partitions, partition), executor))
+                .toList();
+
+            LedgerVerificationDTO result = new LedgerVerificationDTO();
+            for (CompletableFuture<LedgerVerificationDTO> worker : workers) {
+                LedgerVerificationDTO part = worker.join();
+                result.setUnbalancedEntries(result.getUnbalancedEntries() + part.getUnbalancedEntries());
+                result.setPoolMismatch(result.isPoolMismatch() || part.isPoolMismatch());
+                result.setSnapshotMismatches(result.getSnapshotMismatches() + part.getSnapshotMismatches());
+            }
+            result.setElapsedMillis(System.currentTimeMillis() - started);
+            return result;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private LedgerVerificationDTO verifyPartition(int partitions, int partition) {
+        // The book check sums every leg, so only one partition runs it
+        return verifyTransaction.execute(status -> new LedgerVerificationDTO(
+            ledgerRepository.countUnbalancedEntries(partitions, partition),
+            ledgerRepository.countSnapshotMismatches(partitions, partition),
+            partition == 0 && ledgerRepository.hasPoolMismatch(),
+            0));
+    }
+
+    private void post(LedgerAccountType fromType, long fromRef, LedgerAccountType toType, long toRef,
+                      BigDecimal amount, LocalDate date, String description) {
+        if (amount.signum() == 0) {
+            return;
+        }
+        ledgerRepository.post(entryDate(date), description, List.of(
+                new Leg(fromType, fromRef, amount.negate()),
+                new Leg(toType, toRef, amount)));
+    }
+
+    private static LocalDate entryDate(LocalDate date) {
+        return date != null ? date : LocalDate.now();
+    }
+}
@@ -0,0 +1,34 @@
+package com.budget.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.Supplier;
+
+// Runs work in its own transaction and replays it when it loses a version check. Only for
+// operations that re-read current state and commute with the competing write (deposits), so a
+// replay gives the same result as if they had run one after the other. Other writers surface the
+// conflict as 409 through GlobalExceptionHandler.
+@Component
+@RequiredArgsConstructor
+public class OptimisticRetry {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Must not be called from inside a transaction: the conflict is only seen when that one commits
+    public <T> T inTransaction(Supplier<T> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    throw e;
+                }
+            }
+        }
+    }
+}
@@ -25,6 +25,8 @@ public class PlanService {
     private final PlanRepository planRepository;
     private final PlanItemRepository planItemRepository;
     private final BudgetItemRepository budgetItemRepository;
+    private final BudgetCacheEvictor budgetCacheEvictor;
+    private final OptimisticRetry optimisticRetry;
 
     @Transactional(readOnly = true)
     public List<PlanDTO> getPlansForMonth(Integer year, Integer month) {
@@ -64,43 +66,52 @@ public class PlanService {
         plan.setMonth(request.getMonth());
 
         plan = planRepository.save(plan);
+        // The budget view shows each item's planId
+        budgetCacheEvictor.evict(plan.getYear(), plan.getMonth());
         return PlanDTO.fromEntity(plan);
     }
 
-    @Transactional
+    // The item's planned amount is derived from the plan's items, so two concurrent updates would
+    // leave both sets of items behind. They conflict on the item's version instead, and the loser
+    // is replayed in a fresh transaction, as if the updates had run one after the other.
     public PlanDTO updatePlan(Long id, UpdatePlanRequest request) {
-        Plan plan = planRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Plan not found with id: " + id));
-
-        // Clear existing items
-        planItemRepository.deleteByPlanId(id);
-        plan.getItems().clear();
-
-        // Add new items
-        int order = 0;
-        for (UpdatePlanRequest.PlanItemInput input : request.getItems()) {
-            PlanItem item = new PlanItem();
-            item.setPlan(plan);
-            item.setName(input.getName());
-            item.setAmount(input.getAmount() != null ? input.getAmount() : BigDecimal.ZERO);
-            item.setDisplayOrder(order++);
-            item.setFromSubscription(input.getFromSubscription() != null && input.getFromSubscription());
-            item.setFromSalary(input.getFromSalary() != null && input.getFromSalary());
-            plan.getItems().add(item);
-        }
-
-        plan = planRepository.save(plan);
-
-        // Calculate total and update budget item's planned amount
-        BigDecimal total = plan.getItems().stream()
-                .map(PlanItem::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        BudgetItem budgetItem = plan.getBudgetItem();
-        budgetItem.setPlannedAmount(total);
-        budgetItemRepository.save(budgetItem);
-
-        return PlanDTO.fromEntity(plan);
+        return optimisticRetry.inTransaction(() -> {
+            Plan plan = planRepository.findById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Plan not found with id: " + id));
+            Long budgetItemId = plan.getBudgetItem().getId();
+            BudgetItem budgetItem = budgetItemRepository.findByIdForVersionedUpdate(budgetItemId)
+                    .orElseThrow(() -> new EntityNotFoundException("Budget item not found with id: " + budgetItemId));
+
+            // Clear existing items
+            planItemRepository.deleteByPlanId(id);
+            plan.getItems().clear();
+
+            // Add new items
+            int order = 0;
+            for (UpdatePlanRequest.PlanItemInput input : request.getItems()) {
+                PlanItem item = new PlanItem();
+                item.setPlan(plan);
+                item.setName(input.getName());
+                item.setAmount(input.getAmount() != null ? input.getAmount() : BigDecimal.ZERO);
+                item.setDisplayOrder(order++);
+                item.setFromSubscription(input.getFromSubscription() != null && input.getFromSubscription());
+                item.setFromSalary(input.getFromSalary() != null && input.getFromSalary());
+                plan.getItems().add(item);
+            }
+
+            plan = planRepository.save(plan);
+
+            // Calculate total and update budget item's planned amount
+            BigDecimal total = plan.getItems().stream()
+                    .map(PlanItem::getAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+            budgetItem.setPlannedAmount(total);
+            budgetItemRepository.save(budgetItem);
+            budgetCacheEvictor.evict(plan.getYear(), plan.getMonth());
+
+            return PlanDTO.fromEntity(plan);
+        });
     }
 
     @Transactional
@@ -114,5 +125,6 @@ public class PlanService {
         budgetItemRepository.save(budgetItem);
 
         planRepository.delete(plan);
+        budgetCacheEvictor.evict(plan.getYear(), plan.getMonth());
     }
 }
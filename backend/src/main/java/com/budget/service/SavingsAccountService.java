@@ -12,6 +12,7 @@ import com.budget.model.SavingsAccountEvent;
 import com.budget.model.SavingsAccountEventType;
 import com.budget.repository.SavingsAccountEventRepository;
 import com.budget.repository.SavingsAccountRepository;
+import com.budget.repository.SavingsPoolLock;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -29,17 +30,20 @@ public class SavingsAccountService {
 
     private final SavingsAccountRepository savingsAccountRepository;
     private final SavingsAccountEventRepository savingsAccountEventRepository;
+    private final SavingsPoolLock savingsPoolLock;
+    private final LedgerService ledgerService;
 
     public List<SavingsAccountDTO> getAllAccounts() {
         List<SavingsAccount> accounts = savingsAccountRepository.findAllByIsActiveTrueOrderByNameAsc();
         List<Long> ids = accounts.stream().map(SavingsAccount::getId).collect(Collectors.toList());
+        Map<Long, BigDecimal> balances = ledgerService.getAccountBalances(ids);
         Map<Long, LocalDate> latestEventDates = savingsAccountEventRepository
                 .findLatestEventDatesForAccounts(ids)
                 .stream()
                 .collect(Collectors.toMap(row -> (Long) row[0], row -> (LocalDate) row[1]));
         return accounts.stream()
                 .map(a -> {
-                    SavingsAccountDTO dto = SavingsAccountDTO.fromEntity(a);
+                    SavingsAccountDTO dto = SavingsAccountDTO.fromEntity(a, balances.get(a.getId()));
                     LocalDate latestEvent = latestEventDates.get(a.getId());
                     if (latestEvent != null && (a.getAsOfDate() == null || latestEvent.isAfter(a.getAsOfDate()))) {
                         dto.setAsOfDate(latestEvent);
@@ -52,7 +56,7 @@ public class SavingsAccountService {
     public SavingsAccountDTO getAccount(Long id) {
         SavingsAccount account = savingsAccountRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Savings account not found: " + id));
-        SavingsAccountDTO dto = SavingsAccountDTO.fromEntity(account);
+        SavingsAccountDTO dto = SavingsAccountDTO.fromEntity(account, ledgerService.getAccountBalance(id));
         LocalDate latestEvent = savingsAccountEventRepository.findLatestEventDateByAccountId(id);
         if (latestEvent != null && (account.getAsOfDate() == null || latestEvent.isAfter(account.getAsOfDate()))) {
             dto.setAsOfDate(latestEvent);
@@ -64,10 +68,10 @@ public class SavingsAccountService {
     public SavingsAccountDTO createAccount(CreateSavingsAccountRequest request) {
         SavingsAccount account = new SavingsAccount();
         account.setName(request.getName());
-        account.setBalance(request.getBalance());
         account.setAsOfDate(request.getAsOfDate());
         account.setIsActive(true);
         account = savingsAccountRepository.save(account);
+        ledgerService.recordAccountChange(account.getId(), request.getBalance(), request.getAsOfDate(), "Initial balance");
 
         // Log initial balance as a deposit if non-zero
         if (request.getBalance().compareTo(BigDecimal.ZERO) > 0) {
@@ -81,13 +85,14 @@ public class SavingsAccountService {
             savingsAccountEventRepository.save(event);
         }
 
-        return SavingsAccountDTO.fromEntity(account);
+        return SavingsAccountDTO.fromEntity(account, request.getBalance());
     }
 
     @Transactional
     public SavingsAccountDTO updateAccount(Long id, UpdateSavingsAccountRequest request) {
-        SavingsAccount account = savingsAccountRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Savings account not found: " + id));
+        // Pool balance changes serialize with fund allocations, which check against the pool
+        savingsPoolLock.lock();
+        SavingsAccount account = lockAccount(id);
         if (request.getName() != null) {
             account.setName(request.getName());
         }
@@ -95,12 +100,15 @@ public class SavingsAccountService {
             account.setAsOfDate(request.getAsOfDate());
         }
 
+        BigDecimal balance = ledgerService.getAccountBalance(id);
         if (request.getBalance() != null) {
-            BigDecimal oldBalance = account.getBalance();
+            BigDecimal oldBalance = balance;
             BigDecimal newBalance = request.getBalance();
+            balance = newBalance;
             int cmp = newBalance.compareTo(oldBalance);
-            account.setBalance(newBalance);
             account = savingsAccountRepository.save(account);
+            ledgerService.recordAccountChange(account.getId(), newBalance.subtract(oldBalance),
+                    request.getAsOfDate(), "Balance adjustment");
 
             if (cmp != 0) {
                 BigDecimal delta = newBalance.subtract(oldBalance).abs();
@@ -114,25 +122,28 @@ public class SavingsAccountService {
                 event.setBalanceAfter(newBalance);
                 event.setEventDate(request.getAsOfDate() != null ? request.getAsOfDate() : LocalDate.now());
                 event.setNote("Balance adjustment");
-                savingsAccountEventRepository.save(event);
+                event = savingsAccountEventRepository.save(event);
+                rebalanceFrom(event, event.getEventDate());
             }
         } else {
             account = savingsAccountRepository.save(account);
         }
 
-        return SavingsAccountDTO.fromEntity(account);
+        return SavingsAccountDTO.fromEntity(account, balance);
     }
 
     @Transactional
     public void deleteAccount(Long id) {
-        SavingsAccount account = savingsAccountRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Savings account not found: " + id));
+        savingsPoolLock.lock();
+        SavingsAccount account = lockAccount(id);
         account.setIsActive(false);
         savingsAccountRepository.save(account);
+        // A closed account no longer backs any fund
+        ledgerService.recordAccountChange(id, ledgerService.getAccountBalance(id).negate(), LocalDate.now(), "Account closed");
     }
 
     public BigDecimal getTotalPoolBalance() {
-        return savingsAccountRepository.sumActiveBalances();
+        return ledgerService.getPoolTotal();
     }
 
     public List<SavingsAccountEventDTO> getEventsForAccount(Long accountId) {
@@ -144,15 +155,16 @@ public class SavingsAccountService {
                 .collect(Collectors.toList());
     }
 
+    // A deposit only grows the pool, so it skips the pool lock; the account row lock orders it
+    // with the account's other writes so balanceAfter follows on from the previous event
     @Transactional
     public SavingsAccountEventDTO logDeposit(Long accountId, AccountDepositRequest request) {
-        SavingsAccount account = savingsAccountRepository.findById(accountId)
-                .orElseThrow(() -> new EntityNotFoundException("Savings account not found: " + accountId));
+        SavingsAccount account = lockAccount(accountId);
 
-        BigDecimal newBalance = account.getBalance().add(request.getAmount());
-        account.setBalance(newBalance);
+        BigDecimal newBalance = ledgerService.getAccountBalance(accountId).add(request.getAmount());
         account.setAsOfDate(request.getEventDate());
         account = savingsAccountRepository.save(account);
+        ledgerService.recordAccountChange(account.getId(), request.getAmount(), request.getEventDate(), request.getNote());
 
         SavingsAccountEvent event = new SavingsAccountEvent();
         event.setAccount(account);
@@ -163,76 +175,72 @@ public class SavingsAccountService {
         event.setNote(request.getNote());
         event = savingsAccountEventRepository.save(event);
 
-        return SavingsAccountEventDTO.fromEntity(event);
+        return SavingsAccountEventDTO.fromEntity(rebalanceFrom(event, event.getEventDate()));
     }
 
     @Transactional
     public SavingsAccountEventDTO updateAccountEvent(Long id, UpdateSavingsAccountEventRequest request) {
+        savingsPoolLock.lock();
         SavingsAccountEvent event = savingsAccountEventRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Account event not found: " + id));
 
-        SavingsAccount account = event.getAccount();
-        BigDecimal oldAmount = event.getAmount();
+        Long accountId = event.getAccount().getId();
+        lockAccount(accountId);
+        LocalDate oldDate = event.getEventDate();
         BigDecimal newAmount = request.getAmount();
-        BigDecimal delta = newAmount.subtract(oldAmount);
+        BigDecimal delta = newAmount.subtract(event.getAmount());
+        BigDecimal change = event.getEventType() == SavingsAccountEventType.DEPOSIT ? delta : delta.negate();
 
-        if (event.getEventType() == SavingsAccountEventType.DEPOSIT) {
-            BigDecimal updatedBalance = account.getBalance().add(delta);
-            if (updatedBalance.compareTo(BigDecimal.ZERO) < 0) {
-                throw new IllegalStateException("Updated amount would result in negative account balance");
-            }
-            account.setBalance(updatedBalance);
-        } else {
-            BigDecimal updatedBalance = account.getBalance().subtract(delta);
-            if (updatedBalance.compareTo(BigDecimal.ZERO) < 0) {
-                throw new IllegalStateException("Updated amount would result in negative account balance");
-            }
-            account.setBalance(updatedBalance);
+        if (ledgerService.getAccountBalance(accountId).add(change).compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalStateException("Updated amount would result in negative account balance");
         }
 
-        account = savingsAccountRepository.save(account);
+        ledgerService.recordAccountChange(accountId, change, request.getEventDate(), "Correction of account event " + id);
         event.setAmount(newAmount);
-        event.setBalanceAfter(account.getBalance());
         event.setEventDate(request.getEventDate());
         event.setNote(request.getNote());
         event = savingsAccountEventRepository.save(event);
-        return SavingsAccountEventDTO.fromEntity(event);
+
+        // Everything from the earlier of its old and new position onwards may have shifted
+        LocalDate fromDate = oldDate.isBefore(event.getEventDate()) ? oldDate : event.getEventDate();
+        return SavingsAccountEventDTO.fromEntity(rebalanceFrom(event, fromDate));
     }
 
     @Transactional
     public void deleteAccountEvent(Long id) {
+        savingsPoolLock.lock();
         SavingsAccountEvent event = savingsAccountEventRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Account event not found: " + id));
 
-        SavingsAccount account = event.getAccount();
+        Long accountId = event.getAccount().getId();
+        lockAccount(accountId);
+        BigDecimal change = event.getEventType() == SavingsAccountEventType.DEPOSIT
+                ? event.getAmount().negate()
+                : event.getAmount();
 
-        if (event.getEventType() == SavingsAccountEventType.DEPOSIT) {
-            BigDecimal updatedBalance = account.getBalance().subtract(event.getAmount());
-            if (updatedBalance.compareTo(BigDecimal.ZERO) < 0) {
-                throw new IllegalStateException("Cannot delete deposit: account balance would go negative");
-            }
-            account.setBalance(updatedBalance);
-        } else {
-            account.setBalance(account.getBalance().add(event.getAmount()));
+        if (ledgerService.getAccountBalance(accountId).add(change).compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalStateException("Cannot delete deposit: account balance would go negative");
         }
 
-        savingsAccountRepository.save(account);
+        ledgerService.recordAccountChange(accountId, change, LocalDate.now(), "Reversal of account event " + id);
         savingsAccountEventRepository.delete(event);
+        savingsAccountEventRepository.rebalanceFrom(accountId, event.getEventDate(), event.getCreatedAt(), id);
     }
 
     @Transactional
     public SavingsAccountEventDTO logWithdrawal(Long accountId, AccountWithdrawalRequest request) {
-        SavingsAccount account = savingsAccountRepository.findById(accountId)
-                .orElseThrow(() -> new EntityNotFoundException("Savings account not found: " + accountId));
+        savingsPoolLock.lock();
+        SavingsAccount account = lockAccount(accountId);
 
-        if (account.getBalance().compareTo(request.getAmount()) < 0) {
+        BigDecimal balance = ledgerService.getAccountBalance(accountId);
+        if (balance.compareTo(request.getAmount()) < 0) {
             throw new IllegalStateException("Insufficient account balance");
         }
 
-        BigDecimal newBalance = account.getBalance().subtract(request.getAmount());
-        account.setBalance(newBalance);
+        BigDecimal newBalance = balance.subtract(request.getAmount());
         account.setAsOfDate(request.getEventDate());
         account = savingsAccountRepository.save(account);
+        ledgerService.recordAccountChange(account.getId(), request.getAmount().negate(), request.getEventDate(), request.getNote());
 
         SavingsAccountEvent event = new SavingsAccountEvent();
         event.setAccount(account);
@@ -243,6 +251,22 @@ public class SavingsAccountService {
         event.setNote(request.getNote());
         event = savingsAccountEventRepository.save(event);
 
-        return SavingsAccountEventDTO.fromEntity(event);
+        return SavingsAccountEventDTO.fromEntity(rebalanceFrom(event, event.getEventDate()));
+    }
+
+    // A backdated or edited event changes balanceAfter for every later event; fix up the tail
+    // in one statement and return the event as now stored
+    private SavingsAccountEvent rebalanceFrom(SavingsAccountEvent event, LocalDate fromDate) {
+        savingsAccountEventRepository.rebalanceFrom(
+                event.getAccount().getId(), fromDate, event.getCreatedAt(), event.getId());
+        return savingsAccountEventRepository.findById(event.getId())
+                .orElseThrow(() -> new EntityNotFoundException("Account event not found: " + event.getId()));
+    }
+
+    // Balances live in the ledger, so the account row is locked only to order writers to one
+    // account; taken after the pool lock wherever both are needed
+    private SavingsAccount lockAccount(Long accountId) {
+        return savingsAccountRepository.findByIdForUpdate(accountId)
+                .orElseThrow(() -> new EntityNotFoundException("Savings account not found: " + accountId));
     }
 }
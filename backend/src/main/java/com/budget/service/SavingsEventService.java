@@ -9,9 +9,9 @@ import com.budget.model.FundGoalType;
 import com.budget.model.SavingsEvent;
 import com.budget.model.SavingsEventType;
 import com.budget.model.SavingsFund;
-import com.budget.repository.SavingsAccountRepository;
 import com.budget.repository.SavingsEventRepository;
 import com.budget.repository.SavingsFundRepository;
+import com.budget.repository.SavingsPoolLock;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -27,9 +27,10 @@ import java.util.stream.Collectors;
 public class SavingsEventService {
 
     private final SavingsFundRepository savingsFundRepository;
-    private final SavingsAccountRepository savingsAccountRepository;
     private final SavingsEventRepository savingsEventRepository;
     private final SavingsFundService savingsFundService;
+    private final SavingsPoolLock savingsPoolLock;
+    private final LedgerService ledgerService;
 
     public List<SavingsEventDTO> getEventsForFund(Long fundId) {
         return savingsEventRepository.findByFundIdOrderByDateDesc(fundId)
@@ -40,10 +41,13 @@ public class SavingsEventService {
 
     @Transactional
     public SavingsEventDTO logDeposit(LogDepositRequest request) {
+        // Held until commit so no other allocation can pass the pool check in between
+        savingsPoolLock.lock();
+
         // Determine target fund
         SavingsFund targetFund;
         if (request.getTargetFundId() != null) {
-            targetFund = savingsFundRepository.findById(request.getTargetFundId())
+            targetFund = savingsFundRepository.findByIdForUpdate(request.getTargetFundId())
                     .orElseThrow(() -> new EntityNotFoundException("Fund not found: " + request.getTargetFundId()));
             if (!targetFund.getIsActive()) {
                 throw new IllegalStateException("Cannot deposit into an inactive fund");
@@ -52,18 +56,10 @@ public class SavingsEventService {
             targetFund = savingsFundService.getOrCreateUnassignedFund();
         }
 
-        // Pool enforcement: sum of all active fund balances + new deposit <= total pool balance
-        BigDecimal currentFundTotal = savingsFundRepository.sumAllActiveFundBalances();
-        BigDecimal poolBalance = savingsAccountRepository.sumActiveBalances();
-        if (currentFundTotal.add(request.getAmount()).compareTo(poolBalance) > 0) {
-            throw new IllegalStateException(
-                    "Deposit would exceed savings pool. Pool balance: " + poolBalance +
-                    ", current fund total: " + currentFundTotal +
-                    ", deposit amount: " + request.getAmount());
-        }
+        // Pool enforcement: the deposit must fit in what the accounts hold beyond the funds
+        checkPool(request.getAmount(), "Deposit would exceed savings pool");
 
-        targetFund.setBalance(targetFund.getBalance().add(request.getAmount()));
-        savingsFundRepository.save(targetFund);
+        ledgerService.recordFundAllocation(targetFund.getId(), request.getAmount(), request.getEventDate(), request.getNote());
 
         SavingsEvent event = buildEvent(targetFund, SavingsEventType.DEPOSIT_ALLOCATED,
                 request.getAmount(), request.getEventDate(), request.getNote());
@@ -73,17 +69,17 @@ public class SavingsEventService {
 
     @Transactional
     public SavingsEventDTO logWithdrawal(LogWithdrawalRequest request) {
-        SavingsFund fund = savingsFundRepository.findById(request.getFundId())
+        SavingsFund fund = savingsFundRepository.findByIdForUpdate(request.getFundId())
                 .orElseThrow(() -> new EntityNotFoundException("Fund not found: " + request.getFundId()));
 
-        if (fund.getBalance().compareTo(request.getAmount()) < 0) {
+        BigDecimal balance = ledgerService.getFundBalance(fund.getId());
+        if (balance.compareTo(request.getAmount()) < 0) {
             throw new IllegalStateException(
-                    "Insufficient fund balance. Fund balance: " + fund.getBalance() +
+                    "Insufficient fund balance. Fund balance: " + balance +
                     ", withdrawal amount: " + request.getAmount());
         }
 
-        fund.setBalance(fund.getBalance().subtract(request.getAmount()));
-        savingsFundRepository.save(fund);
+        ledgerService.recordFundSpending(fund.getId(), request.getAmount().negate(), request.getEventDate(), request.getNote());
 
         SavingsEvent event = buildEvent(fund, SavingsEventType.WITHDRAWAL,
                 request.getAmount(), request.getEventDate(), request.getNote());
@@ -97,23 +93,26 @@ public class SavingsEventService {
             throw new IllegalArgumentException("Source and destination funds must be different");
         }
 
-        SavingsFund source = savingsFundRepository.findById(request.getSourceFundId())
-                .orElseThrow(() -> new EntityNotFoundException("Source fund not found: " + request.getSourceFundId()));
-        SavingsFund destination = savingsFundRepository.findById(request.getDestinationFundId())
-                .orElseThrow(() -> new EntityNotFoundException("Destination fund not found: " + request.getDestinationFundId()));
+        // Lock both rows in id order so opposite-direction reallocations cannot deadlock
+        SavingsFund source;
+        SavingsFund destination;
+        if (request.getSourceFundId() < request.getDestinationFundId()) {
+            source = lockSourceFund(request.getSourceFundId());
+            destination = lockDestinationFund(request.getDestinationFundId());
+        } else {
+            destination = lockDestinationFund(request.getDestinationFundId());
+            source = lockSourceFund(request.getSourceFundId());
+        }
 
-        if (source.getBalance().compareTo(request.getAmount()) < 0) {
+        BigDecimal sourceBalance = ledgerService.getFundBalance(source.getId());
+        if (sourceBalance.compareTo(request.getAmount()) < 0) {
             throw new IllegalStateException(
-                    "Insufficient source fund balance. Balance: " + source.getBalance() +
+                    "Insufficient source fund balance. Balance: " + sourceBalance +
                     ", reallocation amount: " + request.getAmount());
         }
 
-        source.setBalance(source.getBalance().subtract(request.getAmount()));
-        destination.setBalance(destination.getBalance().add(request.getAmount()));
-        savingsFundRepository.save(source);
-        savingsFundRepository.save(destination);
-
         LocalDate eventDate = LocalDate.now();
+        ledgerService.recordFundTransfer(source.getId(), destination.getId(), request.getAmount(), eventDate, request.getNote());
         SavingsEvent outEvent = buildEvent(source, SavingsEventType.REALLOCATION_OUT,
                 request.getAmount(), eventDate, request.getNote());
         SavingsEvent inEvent = buildEvent(destination, SavingsEventType.REALLOCATION_IN,
@@ -127,7 +126,7 @@ public class SavingsEventService {
 
     @Transactional
     public SavingsEventDTO processPayout(Long fundId) {
-        SavingsFund fund = savingsFundRepository.findById(fundId)
+        SavingsFund fund = savingsFundRepository.findByIdForUpdate(fundId)
                 .orElseThrow(() -> new EntityNotFoundException("Fund not found: " + fundId));
 
         if (fund.getGoalType() != FundGoalType.SPEND_DOWN) {
@@ -136,16 +135,16 @@ public class SavingsEventService {
         if (fund.getPayoutDate() == null || fund.getPayoutDate().isAfter(LocalDate.now())) {
             throw new IllegalStateException("Payout date has not been reached yet");
         }
-        if (fund.getBalance().compareTo(BigDecimal.ZERO) <= 0) {
+        BigDecimal balance = ledgerService.getFundBalance(fund.getId());
+        if (balance.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalStateException("Fund has no balance to pay out");
         }
 
         BigDecimal payoutAmount = fund.getPayoutAmount() != null
-                ? fund.getPayoutAmount().min(fund.getBalance())
-                : fund.getBalance();
+                ? fund.getPayoutAmount().min(balance)
+                : balance;
 
-        fund.setBalance(fund.getBalance().subtract(payoutAmount));
-        savingsFundRepository.save(fund);
+        ledgerService.recordFundSpending(fund.getId(), payoutAmount.negate(), LocalDate.now(), "System payout");
 
         SavingsEvent event = buildEvent(fund, SavingsEventType.PAYOUT,
                 payoutAmount, LocalDate.now(), "System payout");
@@ -155,41 +154,38 @@ public class SavingsEventService {
 
     @Transactional
     public SavingsEventDTO updateEvent(Long id, UpdateSavingsEventRequest request) {
-        SavingsEvent event = savingsEventRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Event not found: " + id));
+        SavingsEvent event = lockEvent(id);
 
         if (event.getEventType() != SavingsEventType.DEPOSIT_ALLOCATED
                 && event.getEventType() != SavingsEventType.WITHDRAWAL) {
             throw new IllegalStateException("Cannot edit this event type");
         }
 
-        SavingsFund fund = event.getFund();
-        BigDecimal oldAmount = event.getAmount();
-        BigDecimal newAmount = request.getAmount();
+        // The fund grows when a deposit is raised or a withdrawal lowered; only then does the
+        // edit draw on the pool
+        BigDecimal delta = request.getAmount().subtract(event.getAmount());
+        BigDecimal change = event.getEventType() == SavingsEventType.DEPOSIT_ALLOCATED ? delta : delta.negate();
+        if (change.signum() > 0) {
+            savingsPoolLock.lock();
+        }
+        SavingsFund fund = lockFund(event.getFund().getId());
+        BigDecimal balance = ledgerService.getFundBalance(fund.getId());
+
+        if (change.signum() > 0) {
+            checkPool(change, "Updated amount would exceed savings pool");
+        } else if (balance.add(change).compareTo(BigDecimal.ZERO) < 0) {
+            throw new IllegalStateException(
+                    "Updated amount would exceed fund balance. Fund balance: " + balance);
+        }
 
+        String correction = "Correction of fund event " + id;
         if (event.getEventType() == SavingsEventType.DEPOSIT_ALLOCATED) {
-            BigDecimal updatedBalance = fund.getBalance().subtract(oldAmount).add(newAmount);
-            // Pool enforcement
-            BigDecimal otherFundsTotal = savingsFundRepository.sumAllActiveFundBalances().subtract(fund.getBalance());
-            BigDecimal poolBalance = savingsAccountRepository.sumActiveBalances();
-            if (otherFundsTotal.add(updatedBalance).compareTo(poolBalance) > 0) {
-                throw new IllegalStateException(
-                        "Updated amount would exceed savings pool. Pool balance: " + poolBalance);
-            }
-            fund.setBalance(updatedBalance);
+            ledgerService.recordFundAllocation(fund.getId(), change, request.getEventDate(), correction);
         } else {
-            // WITHDRAWAL
-            BigDecimal updatedBalance = fund.getBalance().add(oldAmount).subtract(newAmount);
-            if (updatedBalance.compareTo(BigDecimal.ZERO) < 0) {
-                throw new IllegalStateException(
-                        "Updated amount would exceed fund balance. Fund balance: " + fund.getBalance());
-            }
-            fund.setBalance(updatedBalance);
+            ledgerService.recordFundSpending(fund.getId(), change, request.getEventDate(), correction);
         }
 
-        savingsFundRepository.save(fund);
-
-        event.setAmount(newAmount);
+        event.setAmount(request.getAmount());
         event.setEventDate(request.getEventDate());
         event.setNote(request.getNote());
         event = savingsEventRepository.save(event);
@@ -198,32 +194,68 @@ public class SavingsEventService {
 
     @Transactional
     public void deleteEvent(Long id) {
-        SavingsEvent event = savingsEventRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Event not found: " + id));
+        SavingsEvent event = lockEvent(id);
 
         if (event.getEventType() != SavingsEventType.DEPOSIT_ALLOCATED
                 && event.getEventType() != SavingsEventType.WITHDRAWAL) {
             throw new IllegalStateException("Cannot delete this event type");
         }
 
-        SavingsFund fund = event.getFund();
+        // Reversing a withdrawal puts the money back into the fund, out of the pool
+        boolean growsFund = event.getEventType() == SavingsEventType.WITHDRAWAL;
+        if (growsFund) {
+            savingsPoolLock.lock();
+        }
+        SavingsFund fund = lockFund(event.getFund().getId());
 
+        if (growsFund) {
+            checkPool(event.getAmount(), "Cannot delete withdrawal: it would exceed savings pool");
+        } else if (ledgerService.getFundBalance(fund.getId()).compareTo(event.getAmount()) < 0) {
+            throw new IllegalStateException(
+                    "Cannot delete deposit: fund balance would go negative");
+        }
+
+        String reversal = "Reversal of fund event " + id;
         if (event.getEventType() == SavingsEventType.DEPOSIT_ALLOCATED) {
-            BigDecimal updatedBalance = fund.getBalance().subtract(event.getAmount());
-            if (updatedBalance.compareTo(BigDecimal.ZERO) < 0) {
-                throw new IllegalStateException(
-                        "Cannot delete deposit: fund balance would go negative");
-            }
-            fund.setBalance(updatedBalance);
+            ledgerService.recordFundAllocation(fund.getId(), event.getAmount().negate(), LocalDate.now(), reversal);
         } else {
-            // WITHDRAWAL — reverse it
-            fund.setBalance(fund.getBalance().add(event.getAmount()));
+            ledgerService.recordFundSpending(fund.getId(), event.getAmount(), LocalDate.now(), reversal);
         }
-
-        savingsFundRepository.save(fund);
         savingsEventRepository.delete(event);
     }
 
+    // Caller holds the pool lock
+    private void checkPool(BigDecimal increase, String message) {
+        BigDecimal unallocated = ledgerService.getUnallocated();
+        if (increase.compareTo(unallocated) > 0) {
+            throw new IllegalStateException(message + ". Unallocated pool: " + unallocated +
+                    ", requested: " + increase);
+        }
+    }
+
+    // Locked before anything is read from it, so two edits of one event apply one after the other
+    // and each works from the amount the previous one committed. Always taken before the pool lock.
+    private SavingsEvent lockEvent(Long eventId) {
+        return savingsEventRepository.findByIdForUpdate(eventId)
+                .orElseThrow(() -> new EntityNotFoundException("Event not found: " + eventId));
+    }
+
+    // The event's fund is a lazy proxy, so reading its id does not load a stale unlocked copy
+    private SavingsFund lockFund(Long fundId) {
+        return savingsFundRepository.findByIdForUpdate(fundId)
+                .orElseThrow(() -> new EntityNotFoundException("Fund not found: " + fundId));
+    }
+
+    private SavingsFund lockSourceFund(Long fundId) {
+        return savingsFundRepository.findByIdForUpdate(fundId)
+                .orElseThrow(() -> new EntityNotFoundException("Source fund not found: " + fundId));
+    }
+
+    private SavingsFund lockDestinationFund(Long fundId) {
+        return savingsFundRepository.findByIdForUpdate(fundId)
+                .orElseThrow(() -> new EntityNotFoundException("Destination fund not found: " + fundId));
+    }
+
     private SavingsEvent buildEvent(SavingsFund fund, SavingsEventType type,
                                      BigDecimal amount, LocalDate eventDate, String note) {
         SavingsEvent event = new SavingsEvent();
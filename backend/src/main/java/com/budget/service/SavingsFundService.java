@@ -6,7 +6,6 @@ import com.budget.dto.SavingsSummaryDTO;
 import com.budget.dto.UpdateSavingsFundRequest;
 import com.budget.model.FundGoalType;
 import com.budget.model.SavingsFund;
-import com.budget.repository.SavingsAccountRepository;
 import com.budget.repository.SavingsEventRepository;
 import com.budget.repository.SavingsFundRepository;
 import jakarta.persistence.EntityNotFoundException;
@@ -16,7 +15,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,19 +25,34 @@ import java.util.stream.Collectors;
 public class SavingsFundService {
 
     private final SavingsFundRepository savingsFundRepository;
-    private final SavingsAccountRepository savingsAccountRepository;
     private final SavingsEventRepository savingsEventRepository;
+    private final LedgerService ledgerService;
 
     public List<SavingsFundDTO> getAllFunds() {
-        int currentYear = LocalDate.now().getYear();
-        return savingsFundRepository.findAllByIsActiveTrueOrderByNameAsc()
-                .stream()
+        List<SavingsFund> funds = savingsFundRepository.findAllByIsActiveTrueOrderByNameAsc();
+        Map<Long, BigDecimal> balances = balancesOf(funds);
+
+        // YTD spending for every SPEND_AS_YOU_GO fund in one grouped query
+        List<Long> spendIds = funds.stream()
+                .filter(fund -> fund.getGoalType() == FundGoalType.SPEND_AS_YOU_GO)
+                .map(SavingsFund::getId)
+                .collect(Collectors.toList());
+        Map<Long, BigDecimal> ytdSpentByFund = new HashMap<>();
+        if (!spendIds.isEmpty()) {
+            LocalDate yearStart = LocalDate.now().withDayOfYear(1);
+            for (Object[] row : savingsEventRepository.sumWithdrawalsForFundsBetween(
+                    spendIds, yearStart, yearStart.plusYears(1))) {
+                ytdSpentByFund.put((Long) row[0], (BigDecimal) row[1]);
+            }
+        }
+
+        return funds.stream()
                 .map(fund -> {
                     BigDecimal ytdSpent = null;
                     if (fund.getGoalType() == FundGoalType.SPEND_AS_YOU_GO) {
-                        ytdSpent = savingsEventRepository.sumWithdrawalsForFundInYear(fund.getId(), currentYear);
+                        ytdSpent = ytdSpentByFund.getOrDefault(fund.getId(), BigDecimal.ZERO);
                     }
-                    return SavingsFundDTO.fromEntityWithYtd(fund, ytdSpent);
+                    return SavingsFundDTO.fromEntityWithYtd(fund, balances.get(fund.getId()), ytdSpent);
                 })
                 .collect(Collectors.toList());
     }
@@ -46,9 +62,10 @@ public class SavingsFundService {
                 .orElseThrow(() -> new EntityNotFoundException("Savings fund not found: " + id));
         BigDecimal ytdSpent = null;
         if (fund.getGoalType() == FundGoalType.SPEND_AS_YOU_GO) {
-            ytdSpent = savingsEventRepository.sumWithdrawalsForFundInYear(fund.getId(), LocalDate.now().getYear());
+            LocalDate yearStart = LocalDate.now().withDayOfYear(1);
+            ytdSpent = savingsEventRepository.sumWithdrawalsForFundBetween(fund.getId(), yearStart, yearStart.plusYears(1));
         }
-        return SavingsFundDTO.fromEntityWithYtd(fund, ytdSpent);
+        return SavingsFundDTO.fromEntityWithYtd(fund, ledgerService.getFundBalance(id), ytdSpent);
     }
 
     @Transactional
@@ -57,7 +74,6 @@ public class SavingsFundService {
             SavingsFund unassigned = new SavingsFund();
             unassigned.setName("Unassigned");
             unassigned.setGoalType(FundGoalType.NO_GOAL);
-            unassigned.setBalance(BigDecimal.ZERO);
             unassigned.setIsSystemFund(true);
             unassigned.setIsActive(true);
             return savingsFundRepository.save(unassigned);
@@ -72,7 +88,6 @@ public class SavingsFundService {
         SavingsFund fund = new SavingsFund();
         fund.setName(request.getName());
         fund.setGoalType(request.getGoalType());
-        fund.setBalance(BigDecimal.ZERO);
         fund.setTargetAmount(request.getTargetAmount());
         fund.setDeadline(request.getDeadline());
         fund.setCeiling(request.getCeiling());
@@ -81,7 +96,7 @@ public class SavingsFundService {
         fund.setIsSystemFund(false);
         fund.setIsActive(true);
         fund = savingsFundRepository.save(fund);
-        return SavingsFundDTO.fromEntity(fund);
+        return SavingsFundDTO.fromEntity(fund, BigDecimal.ZERO);
     }
 
     @Transactional
@@ -106,18 +121,19 @@ public class SavingsFundService {
         fund.setPayoutAmount(request.getPayoutAmount());
 
         fund = savingsFundRepository.save(fund);
-        return SavingsFundDTO.fromEntity(fund);
+        return SavingsFundDTO.fromEntity(fund, ledgerService.getFundBalance(id));
     }
 
     @Transactional
     public void deleteFund(Long id) {
-        SavingsFund fund = savingsFundRepository.findById(id)
+        // Row lock so no allocation can land between the balance check and the deactivation
+        SavingsFund fund = savingsFundRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new EntityNotFoundException("Savings fund not found: " + id));
 
         if (fund.getIsSystemFund()) {
             throw new IllegalStateException("Cannot delete the Unassigned system fund");
         }
-        if (fund.getBalance().compareTo(BigDecimal.ZERO) > 0) {
+        if (ledgerService.getFundBalance(id).compareTo(BigDecimal.ZERO) > 0) {
             throw new IllegalStateException("Cannot delete a fund with remaining balance. Reallocate the balance first.");
         }
 
@@ -125,16 +141,21 @@ public class SavingsFundService {
         savingsFundRepository.save(fund);
     }
 
+    @Transactional(readOnly = true)
     public SavingsSummaryDTO getYearSummary() {
-        BigDecimal totalPool = savingsAccountRepository.sumActiveBalances();
-
-        SavingsFund unassigned = savingsFundRepository.findByIsSystemFundTrue().orElse(null);
-        BigDecimal totalUnallocated = unassigned != null ? unassigned.getBalance() : BigDecimal.ZERO;
+        BigDecimal totalPool = ledgerService.getPoolTotal();
 
+        // "Unallocated" here is the Unassigned system fund, not the ledger's UNALLOCATED pool remainder
         List<SavingsFund> allActive = savingsFundRepository.findAllByIsActiveTrueOrderByNameAsc();
+        Map<Long, BigDecimal> balances = balancesOf(allActive);
+        BigDecimal totalUnallocated = allActive.stream()
+                .filter(SavingsFund::getIsSystemFund)
+                .map(f -> balances.get(f.getId()))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
         BigDecimal totalAllocated = allActive.stream()
                 .filter(f -> !f.getIsSystemFund())
-                .map(SavingsFund::getBalance)
+                .map(f -> balances.get(f.getId()))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
         BigDecimal totalRemainingToSave = allActive.stream()
@@ -143,18 +164,23 @@ public class SavingsFundService {
                             || f.getGoalType() == FundGoalType.TARGET_WITH_DEADLINE
                             || f.getGoalType() == FundGoalType.SPEND_DOWN)
                         && f.getTargetAmount() != null
-                        && f.getBalance().compareTo(f.getTargetAmount()) < 0)
-                .map(f -> f.getTargetAmount().subtract(f.getBalance()))
+                        && balances.get(f.getId()).compareTo(f.getTargetAmount()) < 0)
+                .map(f -> f.getTargetAmount().subtract(balances.get(f.getId())))
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
 
+        // Deadline funds are active, so their balances are already in the map
         List<SavingsFundDTO> upcomingDeadlines = savingsFundRepository.findUpcomingDeadlineFunds()
                 .stream()
-                .map(SavingsFundDTO::fromEntity)
+                .map(f -> SavingsFundDTO.fromEntity(f, balances.get(f.getId())))
                 .collect(Collectors.toList());
 
         return new SavingsSummaryDTO(totalPool, totalAllocated, totalUnallocated, totalRemainingToSave, upcomingDeadlines);
     }
 
+    private Map<Long, BigDecimal> balancesOf(List<SavingsFund> funds) {
+        return ledgerService.getFundBalances(funds.stream().map(SavingsFund::getId).toList());
+    }
+
     private void validateGoalTypeFields(FundGoalType goalType, BigDecimal targetAmount,
                                          LocalDate deadline, BigDecimal ceiling,
                                          LocalDate payoutDate, BigDecimal payoutAmount) {
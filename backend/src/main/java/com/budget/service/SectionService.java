@@ -19,6 +19,7 @@ public class SectionService {
 
     private final SectionRepository sectionRepository;
     private final BudgetService budgetService;
+    private final BudgetCacheEvictor budgetCacheEvictor;
 
     @Transactional
     public SectionDTO createSection(CreateSectionRequest request) {
@@ -34,6 +35,7 @@ public class SectionService {
         section.setItems(new HashSet<>());
 
         section = sectionRepository.save(section);
+        budgetCacheEvictor.evict(budget.getYear(), budget.getMonth());
         return SectionDTO.fromEntity(section);
     }
 
@@ -50,15 +52,21 @@ public class SectionService {
         }
 
         section = sectionRepository.save(section);
+        evictBudgetOf(section);
         return SectionDTO.fromEntity(section);
     }
 
     @Transactional
     public void deleteSection(Long id) {
-        if (!sectionRepository.existsById(id)) {
-            throw new EntityNotFoundException("Section not found with id: " + id);
-        }
-        sectionRepository.deleteById(id);
+        Section section = sectionRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Section not found with id: " + id));
+        evictBudgetOf(section);
+        sectionRepository.delete(section);
+    }
+
+    private void evictBudgetOf(Section section) {
+        Budget budget = section.getBudget();
+        budgetCacheEvictor.evict(budget.getYear(), budget.getMonth());
     }
 
     @Transactional(readOnly = true)
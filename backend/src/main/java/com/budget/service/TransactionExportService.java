@@ -0,0 +1,104 @@
+package com.budget.service;
+
+import com.budget.dto.TransactionDTO;
+import com.budget.dto.TransactionFilter;
+import com.budget.model.TransactionType;
+import com.budget.repository.TransactionExportReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    // Column names match the CSV import mapping keys so an export can be re-imported as-is
+    private static final String CSV_HEADER = "id,date,type,merchant,amount,category,budgetItem,note";
+
+    private final TransactionExportReader transactionExportReader;
+    private final ObjectMapper objectMapper;
+
+    public static String normalizeFormat(String format) {
+        String normalized = format == null ? CSV : format.trim().toLowerCase();
+        if (!CSV.equals(normalized) && !NDJSON.equals(normalized)) {
+            throw new IllegalArgumentException("Unsupported export format: " + format);
+        }
+        return normalized;
+    }
+
+    // Writes each row as it comes off the cursor; the output is flushed by the buffered writer,
+    // so the first bytes leave before the query has finished
+    @Transactional(readOnly = true)
+    public void export(TransactionFilter filter, String format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 16 * 1024);
+        try {
+            if (NDJSON.equals(format)) {
+                transactionExportReader.forEach(filter, dto -> writeJsonLine(writer, dto));
+            } else {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                transactionExportReader.forEach(filter, dto -> writeCsvLine(writer, dto));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    private void writeJsonLine(Writer writer, TransactionDTO dto) {
+        try {
+            writer.write(objectMapper.writeValueAsString(dto));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsvLine(Writer writer, TransactionDTO dto) {
+        // Signed amount: the importer reads negative values as expenses
+        BigDecimal amount = dto.getType() == TransactionType.EXPENSE ? dto.getAmount().negate() : dto.getAmount();
+        try {
+            writer.write(String.valueOf(dto.getId()));
+            writer.write(',');
+            writer.write(dto.getTransactionDate().toString());
+            writer.write(',');
+            writer.write(dto.getType().name());
+            writer.write(',');
+            writer.write(csvField(dto.getMerchant()));
+            writer.write(',');
+            writer.write(amount.toPlainString());
+            writer.write(',');
+            writer.write(csvField(dto.getSectionName()));
+            writer.write(',');
+            writer.write(csvField(dto.getBudgetItemName()));
+            writer.write(',');
+            writer.write(csvField(dto.getNote()));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
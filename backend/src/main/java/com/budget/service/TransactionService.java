@@ -1,87 +1,138 @@
 package com.budget.service;
 
+import com.budget.dto.BulkRecategorizeRequest;
 import com.budget.dto.CreateTransactionRequest;
+import com.budget.dto.CsvImportOptions;
 import com.budget.dto.CsvImportRequest;
+import com.budget.dto.CsvImportResultDTO;
+import com.budget.dto.TransactionCursorPageDTO;
 import com.budget.dto.TransactionDTO;
+import com.budget.dto.TransactionFilter;
+import com.budget.dto.TransactionSliceDTO;
 import com.budget.dto.UpdateTransactionRequest;
-import com.budget.model.Budget;
 import com.budget.model.BudgetItem;
+import com.budget.model.CountMode;
 import com.budget.model.Section;
 import com.budget.model.Transaction;
 import com.budget.model.TransactionType;
+import com.budget.repository.BudgetItemActualsRepository;
 import com.budget.repository.BudgetItemRepository;
 import com.budget.repository.BudgetRepository;
 import com.budget.repository.SectionRepository;
+import com.budget.repository.TransactionImportWriter;
 import com.budget.repository.TransactionRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
+import java.util.Base64;
 
 @Service
 @RequiredArgsConstructor
 public class TransactionService {
 
+    // Keeps the IN list well under the Postgres bind parameter limit
+    private static final int MAX_BULK_IDS = 10000;
+    private static final int MAX_PAGE_SIZE = 500;
+
     private final TransactionRepository transactionRepository;
     private final SectionRepository sectionRepository;
     private final BudgetItemRepository budgetItemRepository;
     private final BudgetRepository budgetRepository;
+    private final TransactionImportWriter transactionImportWriter;
+    private final BudgetItemActualsRepository budgetItemActualsRepository;
+    private final BudgetCacheEvictor budgetCacheEvictor;
+
+    @Transactional(readOnly = true)
+    public Page<TransactionDTO> getTransactions(TransactionFilter filter, int page, int size) {
+        validatePageSize(size);
+        Pageable pageable = PageRequest.of(page, size);
+        return transactionRepository.findByFilter(filter, pageable);
+    }
 
+    // Skips the exact COUNT(*): NONE reports only whether another page exists, ESTIMATE adds
+    // the planner's row estimate for the filter
     @Transactional(readOnly = true)
-    public Page<TransactionDTO> getTransactions(
-            LocalDate startDate,
-            LocalDate endDate,
-            TransactionType type,
-            Long sectionId,
-            Long budgetItemId,
-            String sectionName,
-            String budgetItemName,
-            String merchant,
-            int page,
-            int size) {
-        // Use unsorted pageable since native query already has ORDER BY clause
-        Pageable pageable = PageRequest.of(page, size, Sort.unsorted());
-
-        // Prepare merchant pattern for LIKE query
-        String merchantPattern = (merchant != null && !merchant.isBlank())
-            ? "%" + merchant.toLowerCase() + "%"
-            : null;
-
-        // Convert enum to string for native query
-        String typeStr = type != null ? type.name() : null;
-
-        Page<Transaction> transactions = transactionRepository.findWithFilters(
-            startDate,
-            endDate,
-            typeStr,
-            sectionId,
-            budgetItemId,
-            sectionName,
-            budgetItemName,
-            merchantPattern,
-            pageable
-        );
-
-        // Convert within the transaction to ensure lazy loading works
-        List<TransactionDTO> dtos = transactions.getContent().stream()
-            .map(TransactionDTO::fromEntity)
-            .collect(Collectors.toList());
-
-        return new PageImpl<>(dtos, pageable, transactions.getTotalElements());
+    public TransactionSliceDTO getTransactionSlice(TransactionFilter filter, int page, int size, CountMode countMode) {
+        validatePageSize(size);
+        Pageable pageable = PageRequest.of(page, size);
+        Slice<TransactionDTO> slice = transactionRepository.findSliceByFilter(filter, pageable);
+        List<TransactionDTO> dtos = slice.getContent();
+
+        Long total = null;
+        if (countMode == CountMode.ESTIMATE) {
+            // The estimate can undershoot what has already been seen; never report less than that
+            long seen = pageable.getOffset() + dtos.size() + (slice.hasNext() ? 1 : 0);
+            total = Math.max(transactionRepository.estimateCountByFilter(filter), seen);
+        }
+        return new TransactionSliceDTO(dtos, page, size, slice.hasNext(), total, total != null);
+    }
+
+    @Transactional(readOnly = true)
+    public TransactionCursorPageDTO getTransactionsAfterCursor(TransactionFilter filter, String cursor, int size) {
+        validatePageSize(size);
+        LocalDate cursorDate = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = decodeCursor(cursor);
+            cursorDate = LocalDate.parse(parts[0]);
+            cursorId = Long.parseLong(parts[1]);
+        }
+
+        // Fetch one extra row to learn whether another page exists without counting
+        List<TransactionDTO> rows = transactionRepository.findByFilterAfter(filter, cursorDate, cursorId, size + 1);
+
+        boolean hasNext = rows.size() > size;
+        List<TransactionDTO> dtos = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            TransactionDTO last = dtos.get(dtos.size() - 1);
+            nextCursor = encodeCursor(last.getTransactionDate(), last.getId());
+        }
+        return new TransactionCursorPageDTO(dtos, dtos.size(), hasNext, nextCursor);
+    }
+
+    private static void validatePageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static String encodeCursor(LocalDate date, Long id) {
+        String raw = date + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            LocalDate.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -112,14 +163,22 @@ public class TransactionService {
             transaction.setBudgetItem(budgetItem);
         }
 
-        transaction = transactionRepository.save(transaction);
+        // Flush so the transaction row is written (and its table locked) before the rollup row;
+        // the actuals rebuild takes its locks in the same order
+        transaction = transactionRepository.saveAndFlush(transaction);
+        budgetItemActualsRepository.add(budgetItemId(transaction), transaction.getTransactionDate(), signedAmount(transaction));
+        budgetCacheEvictor.evict(transaction.getTransactionDate());
         return TransactionDTO.fromEntity(transaction);
     }
 
     @Transactional
     public TransactionDTO updateTransaction(Long id, UpdateTransactionRequest request) {
-        Transaction transaction = transactionRepository.findById(id)
+        // Row lock so concurrent edits of the same transaction apply their rollup deltas in turn
+        Transaction transaction = transactionRepository.findByIdForUpdate(id)
             .orElseThrow(() -> new EntityNotFoundException("Transaction not found with id: " + id));
+        Long oldBudgetItemId = budgetItemId(transaction);
+        LocalDate oldDate = transaction.getTransactionDate();
+        BigDecimal oldSignedAmount = signedAmount(transaction);
 
         if (request.getType() != null) {
             transaction.setType(request.getType());
@@ -149,16 +208,71 @@ public class TransactionService {
             transaction.setBudgetItem(item);
         }
 
-        transaction = transactionRepository.save(transaction);
+        transaction = transactionRepository.saveAndFlush(transaction);
+        budgetItemActualsRepository.add(oldBudgetItemId, oldDate, oldSignedAmount.negate());
+        budgetItemActualsRepository.add(budgetItemId(transaction), transaction.getTransactionDate(), signedAmount(transaction));
+        budgetCacheEvictor.evict(List.of(YearMonth.from(oldDate), YearMonth.from(transaction.getTransactionDate())));
         return TransactionDTO.fromEntity(transaction);
     }
 
+    // One set-based UPDATE for the whole selection instead of a find/save per row.
+    // Moving to a section without naming an item clears the budget item, since items belong to sections.
     @Transactional
-    public void deleteTransaction(Long id) {
-        if (!transactionRepository.existsById(id)) {
-            throw new EntityNotFoundException("Transaction not found with id: " + id);
+    public int bulkRecategorize(BulkRecategorizeRequest request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (byIds == (request.getFilter() != null)) {
+            throw new IllegalArgumentException("Provide either ids or filter");
+        }
+        if (byIds && request.getIds().size() > MAX_BULK_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " ids per request; use a filter instead");
+        }
+        if (request.getSectionId() == null && request.getBudgetItemId() == null) {
+            throw new IllegalArgumentException("Target section or budget item is required");
         }
-        transactionRepository.deleteById(id);
+
+        Long sectionId = request.getSectionId();
+        Long budgetItemId = request.getBudgetItemId();
+        if (budgetItemId != null) {
+            BudgetItem item = budgetItemRepository.findById(budgetItemId)
+                .orElseThrow(() -> new EntityNotFoundException("Budget item not found"));
+            Long itemSectionId = item.getSection().getId();
+            if (sectionId != null && !sectionId.equals(itemSectionId)) {
+                throw new IllegalArgumentException("Budget item does not belong to section " + sectionId);
+            }
+            sectionId = itemSectionId;
+        } else if (!sectionRepository.existsById(sectionId)) {
+            throw new EntityNotFoundException("Section not found");
+        }
+
+        Map<YearMonth, Integer> movedByMonth = byIds
+            ? transactionRepository.updateCategoryByIds(request.getIds(), sectionId, budgetItemId)
+            : transactionRepository.updateCategoryByFilter(request.getFilter(), sectionId, budgetItemId);
+
+        // One eviction per affected month, not per row
+        budgetCacheEvictor.evict(movedByMonth.keySet());
+        return movedByMonth.values().stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Transactional
+    public void deleteTransaction(Long id) {
+        Transaction transaction = transactionRepository.findByIdForUpdate(id)
+            .orElseThrow(() -> new EntityNotFoundException("Transaction not found with id: " + id));
+        transactionRepository.delete(transaction);
+        transactionRepository.flush();
+        budgetItemActualsRepository.add(budgetItemId(transaction), transaction.getTransactionDate(),
+            signedAmount(transaction).negate());
+        budgetCacheEvictor.evict(transaction.getTransactionDate());
+    }
+
+    // Income counts positive and expenses negative, as stored in budget_item_actuals
+    private static BigDecimal signedAmount(Transaction transaction) {
+        return transaction.getType() == TransactionType.INCOME
+            ? transaction.getAmount()
+            : transaction.getAmount().negate();
+    }
+
+    private static Long budgetItemId(Transaction transaction) {
+        return transaction.getBudgetItem() != null ? transaction.getBudgetItem().getId() : null;
     }
 
     @Transactional(readOnly = true)
@@ -168,117 +282,41 @@ public class TransactionService {
     }
 
     @Transactional
-    public List<TransactionDTO> importTransactions(CsvImportRequest request) {
-        List<TransactionDTO> imported = new ArrayList<>();
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern(
-            request.getDateFormat() != null ? request.getDateFormat() : "yyyy-MM-dd"
-        );
+    public CsvImportResultDTO importTransactions(CsvImportRequest request) {
+        CsvRowParser parser = new CsvRowParser(request);
+        ImportSession session = newImportSession();
 
         List<List<String>> rows = request.getRows();
         int startIndex = request.isSkipFirstRow() ? 1 : 0;
 
         for (int i = startIndex; i < rows.size(); i++) {
-            List<String> row = rows.get(i);
-            try {
-                Transaction transaction = new Transaction();
-
-                // Parse date
-                Integer dateCol = request.getColumnMapping().get("date");
-                if (dateCol != null && dateCol < row.size()) {
-                    String dateStr = row.get(dateCol).trim();
-                    transaction.setTransactionDate(LocalDate.parse(dateStr, dateFormatter));
-                } else {
-                    continue; // Skip rows without date
-                }
-
-                // Parse merchant
-                Integer merchantCol = request.getColumnMapping().get("merchant");
-                if (merchantCol != null && merchantCol < row.size()) {
-                    transaction.setMerchant(row.get(merchantCol).trim());
-                } else {
-                    transaction.setMerchant("Unknown");
-                }
-
-                // Parse amount; positive = INCOME, negative = EXPENSE
-                Integer amountCol = request.getColumnMapping().get("amount");
-                if (amountCol != null && amountCol < row.size()) {
-                    String amountStr = row.get(amountCol).trim()
-                        .replace("$", "")
-                        .replace(",", "")
-                        .replace("(", "-")
-                        .replace(")", "");
-                    BigDecimal rawAmount = new BigDecimal(amountStr);
-                    transaction.setAmount(rawAmount.abs());
-                    transaction.setType(rawAmount.signum() >= 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
-                } else {
-                    continue; // Skip rows without amount
-                }
-
-                // Parse note (optional)
-                Integer noteCol = request.getColumnMapping().get("note");
-                if (noteCol != null && noteCol < row.size()) {
-                    transaction.setNote(row.get(noteCol).trim());
-                }
-
-                // Look up (but do NOT create) the budget for this transaction's month
-                LocalDate txDate = transaction.getTransactionDate();
-                Budget budget = budgetRepository.findByYearAndMonth(txDate.getYear(), txDate.getMonthValue())
-                    .orElse(null);
-
-                // Parse category/section (optional) - match within this budget month only if it exists
-                Integer categoryCol = request.getColumnMapping().get("category");
-                Section matchedSection = null;
-                if (budget != null && categoryCol != null && categoryCol < row.size()) {
-                    String categoryName = row.get(categoryCol).trim();
-                    if (!categoryName.isEmpty()) {
-                        final String catName = categoryName;
-                        matchedSection = sectionRepository.findByBudgetIdOrderByDisplayOrderAsc(budget.getId())
-                            .stream()
-                            .filter(s -> s.getName().equalsIgnoreCase(catName))
-                            .findFirst()
-                            .orElse(null);
-                        if (matchedSection != null) {
-                            transaction.setSection(matchedSection);
-                        }
-                    }
-                }
-
-                // Parse budget item (optional) - match or auto-create within the matched section
-                Integer budgetItemCol = request.getColumnMapping().get("budgetItem");
-                if (budgetItemCol != null && budgetItemCol < row.size() && matchedSection != null) {
-                    String budgetItemName = row.get(budgetItemCol).trim();
-                    if (!budgetItemName.isEmpty()) {
-                        final Section section = matchedSection;
-                        final String itemName = budgetItemName;
-                        BudgetItem matched = budgetItemRepository
-                            .findBySectionIdOrderByDisplayOrderAsc(section.getId())
-                            .stream()
-                            .filter(bi -> bi.getName().equalsIgnoreCase(itemName))
-                            .findFirst()
-                            .orElse(null);
-                        if (matched == null) {
-                            // Auto-create the budget item in this section
-                            int nextOrder = budgetItemRepository.findMaxDisplayOrderBySectionId(section.getId()) + 1;
-                            BudgetItem newItem = new BudgetItem();
-                            newItem.setName(itemName);
-                            newItem.setSection(section);
-                            newItem.setPlannedAmount(BigDecimal.ZERO);
-                            newItem.setActualAmount(BigDecimal.ZERO);
-                            newItem.setDisplayOrder(nextOrder);
-                            matched = budgetItemRepository.save(newItem);
-                        }
-                        transaction.setBudgetItem(matched);
-                    }
-                }
-
-                Transaction saved = transactionRepository.save(transaction);
-                imported.add(TransactionDTO.fromEntity(saved));
-            } catch (DateTimeParseException | NumberFormatException e) {
-                // Skip invalid rows
-                continue;
+            session.accept(parser.parse(rows.get(i), session.lookups));
+        }
+
+        return session.finish();
+    }
+
+    @Transactional
+    public CsvImportResultDTO importTransactionsStream(InputStream input, CsvImportOptions options) throws IOException {
+        CsvRowParser parser = new CsvRowParser(options);
+        ImportSession session = newImportSession();
+
+        try (CsvRowReader reader = new CsvRowReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            if (options.isSkipFirstRow()) {
+                reader.readRow();
+            }
+
+            List<String> row;
+            while ((row = reader.readRow()) != null) {
+                session.accept(parser.parse(row, session.lookups));
             }
         }
 
-        return imported;
+        return session.finish();
+    }
+
+    ImportSession newImportSession() {
+        return new ImportSession(budgetRepository, sectionRepository, budgetItemRepository, transactionImportWriter,
+                budgetCacheEvictor);
     }
 }
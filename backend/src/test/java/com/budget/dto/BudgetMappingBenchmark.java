@@ -0,0 +1,127 @@
+package com.budget.dto;
+
+import com.budget.model.Budget;
+import com.budget.model.BudgetItem;
+import com.budget.model.Section;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// BudgetDTO.fromEntity against the stream-per-total mapping it replaced, on a year of months with
+// 50 items each. Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="BudgetMapping"
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BudgetMappingBenchmark {
+
+    private static final int MONTHS = 12;
+    private static final int SECTIONS = 10;
+    private static final int ITEMS_PER_SECTION = 5;
+
+    private List<Budget> year;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        year = new ArrayList<>(MONTHS);
+        long id = 1;
+        for (int month = 1; month <= MONTHS; month++) {
+            Budget budget = new Budget();
+            budget.setId(id++);
+            budget.setYear(2024);
+            budget.setMonth(month);
+            for (int s = 0; s < SECTIONS; s++) {
+                Section section = new Section();
+                section.setId(id++);
+                section.setName("Section " + s);
+                section.setDisplayOrder(s);
+                section.setIsIncome(s == 0);
+                section.setBudget(budget);
+                for (int i = 0; i < ITEMS_PER_SECTION; i++) {
+                    BudgetItem item = new BudgetItem();
+                    item.setId(id++);
+                    item.setName("Item " + i);
+                    item.setDisplayOrder(i);
+                    item.setPlannedAmount(BigDecimal.valueOf(random.nextInt(200_000), 2));
+                    item.setActualAmount(BigDecimal.valueOf(random.nextInt(200_000), 2));
+                    item.setIsExcludedFromBudget(i == ITEMS_PER_SECTION - 1 && s % 3 == 0);
+                    item.setSection(section);
+                    section.getItems().add(item);
+                }
+                budget.getSections().add(section);
+            }
+            year.add(budget);
+        }
+    }
+
+    @Benchmark
+    public void singlePass(Blackhole blackhole) {
+        for (Budget budget : year) {
+            blackhole.consume(BudgetDTO.fromEntity(budget));
+        }
+    }
+
+    @Benchmark
+    public void streamPerTotal(Blackhole blackhole) {
+        for (Budget budget : year) {
+            blackhole.consume(legacyBudget(budget));
+        }
+    }
+
+    // The mapping as it was before the single-pass accumulator
+    private static BudgetDTO legacyBudget(Budget budget) {
+        BudgetDTO dto = new BudgetDTO();
+        dto.setId(budget.getId());
+        dto.setYear(budget.getYear());
+        dto.setMonth(budget.getMonth());
+        dto.setCreatedAt(budget.getCreatedAt());
+        dto.setSections(budget.getSections().stream()
+                .map(BudgetMappingBenchmark::legacySection)
+                .collect(Collectors.toList()));
+        dto.setTotalPlannedIncome(legacyTotal(dto, true, BudgetItemDTO::getPlannedAmount));
+        dto.setTotalIncome(legacyTotal(dto, true, BudgetItemDTO::getActualAmount));
+        dto.setTotalPlannedExpenses(legacyTotal(dto, false, BudgetItemDTO::getPlannedAmount));
+        dto.setTotalExpenses(legacyTotal(dto, false, BudgetItemDTO::getActualAmount));
+        return dto;
+    }
+
+    private static BigDecimal legacyTotal(BudgetDTO dto, boolean income,
+                                          Function<BudgetItemDTO, BigDecimal> amount) {
+        return dto.getSections().stream()
+                .filter(s -> s.getIsIncome() == income)
+                .flatMap(s -> s.getItems().stream())
+                .filter(item -> !Boolean.TRUE.equals(item.getIsExcludedFromBudget()))
+                .map(amount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    private static SectionDTO legacySection(Section section) {
+        SectionDTO dto = new SectionDTO();
+        dto.setId(section.getId());
+        dto.setName(section.getName());
+        dto.setDisplayOrder(section.getDisplayOrder());
+        dto.setIsIncome(section.getIsIncome());
+        dto.setItems(section.getItems().stream()
+                .map(BudgetItemDTO::fromEntity)
+                .collect(Collectors.toList()));
+        dto.setTotalPlanned(dto.getItems().stream()
+                .filter(item -> !Boolean.TRUE.equals(item.getIsExcludedFromBudget()))
+                .map(BudgetItemDTO::getPlannedAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        dto.setTotalActual(dto.getItems().stream()
+                .filter(item -> !Boolean.TRUE.equals(item.getIsExcludedFromBudget()))
+                .map(BudgetItemDTO::getActualAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        return dto;
+    }
+}
@@ -0,0 +1,62 @@
+package com.budget.repository;
+
+import com.budget.dto.BudgetDTO;
+import com.budget.dto.BudgetItemDTO;
+import com.budget.dto.CreateTransactionRequest;
+import com.budget.dto.SectionDTO;
+import com.budget.dto.TransactionFilter;
+import com.budget.dto.TransactionSliceDTO;
+import com.budget.model.CountMode;
+import com.budget.model.TransactionType;
+import com.budget.service.BudgetService;
+import com.budget.service.TransactionService;
+import com.budget.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionCountEstimateTest extends PostgresIntegrationTest {
+
+    private static final int YEAR = 2090;
+
+    @Autowired BudgetService budgetService;
+    @Autowired TransactionService transactionService;
+    @Autowired TransactionRepository transactionRepository;
+    @Autowired JdbcTemplate jdbcTemplate;
+
+    @Test
+    void estimateComesFromThePlannerRowCount() {
+        BudgetDTO budget = budgetService.getOrCreateBudget(YEAR, 1);
+        SectionDTO section = budget.getSections().get(0);
+        BudgetItemDTO item = section.getItems().get(0);
+        for (int i = 0; i < 120; i++) {
+            CreateTransactionRequest request = new CreateTransactionRequest();
+            request.setSectionId(section.getId());
+            request.setBudgetItemId(item.getId());
+            request.setType(TransactionType.EXPENSE);
+            request.setTransactionDate(LocalDate.of(YEAR, 1, 1 + i % 28));
+            request.setMerchant("Store " + i);
+            request.setAmount(new BigDecimal("9.99"));
+            transactionService.createTransaction(request);
+        }
+        // Fresh statistics; on a table this small ANALYZE samples every row
+        jdbcTemplate.execute("ANALYZE transaction");
+
+        TransactionFilter everything = new TransactionFilter();
+        long exact = transactionService.getTransactions(everything, 0, 10).getTotalElements();
+        TransactionSliceDTO slice = transactionService.getTransactionSlice(everything, 0, 10, CountMode.ESTIMATE);
+        assertTrue(slice.isTotalEstimated());
+        // An unfiltered scan is estimated from reltuples, which ANALYZE just set to the row count
+        assertEquals(exact, slice.getTotalElements());
+
+        TransactionFilter year = new TransactionFilter();
+        year.setStartDate(LocalDate.of(YEAR, 1, 1));
+        year.setEndDate(LocalDate.of(YEAR, 12, 31));
+        assertTrue(transactionRepository.estimateCountByFilter(year) > 0);
+    }
+}
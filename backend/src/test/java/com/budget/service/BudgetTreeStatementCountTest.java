@@ -0,0 +1,63 @@
+package com.budget.service;
+
+import com.budget.dto.BudgetDTO;
+import com.budget.dto.CreateItemRequest;
+import com.budget.dto.CreateSectionRequest;
+import com.budget.dto.SectionDTO;
+import com.budget.support.PostgresIntegrationTest;
+import com.budget.support.StatementCounter;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BudgetTreeStatementCountTest extends PostgresIntegrationTest {
+
+    private static final int YEAR = 2092;
+
+    @Autowired BudgetService budgetService;
+    @Autowired SectionService sectionService;
+    @Autowired BudgetItemService budgetItemService;
+    @Autowired StatementCounter statementCounter;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void monthViewCostsFourStatementsWhateverTheSectionCount() {
+        BudgetDTO created = budgetService.createBudget(YEAR, 3, null);
+        // More sections than Section.items' @BatchSize(25), which alone would need a second items query
+        for (int i = created.getSections().size(); i < 30; i++) {
+            CreateSectionRequest sectionRequest = new CreateSectionRequest();
+            sectionRequest.setBudgetId(created.getId());
+            sectionRequest.setName("Extra " + i);
+            SectionDTO section = sectionService.createSection(sectionRequest);
+            CreateItemRequest itemRequest = new CreateItemRequest();
+            itemRequest.setSectionId(section.getId());
+            itemRequest.setName("Item " + i);
+            budgetItemService.createItem(itemRequest);
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statementCounter.reset();
+        BudgetDTO budget = budgetService.getBudget(YEAR, 3);
+
+        assertEquals(30, budget.getSections().size());
+        assertTrue(budget.getSections().stream().allMatch(s -> !s.getItems().isEmpty()));
+        // Hibernate: budget with sections, all items, the month's plans. Nothing initialized lazily.
+        assertEquals(3, statistics.getPrepareStatementCount(), "Hibernate statements for the month view");
+        assertEquals(0, statistics.getCollectionFetchCount(), "lazy collection loads");
+        assertEquals(0, statistics.getEntityFetchCount(), "lazy entity loads");
+        // Plus the month's actuals, read over plain JDBC
+        assertEquals(4, statementCounter.count(), "JDBC statements for the month view");
+
+        // Served from the cache afterwards
+        statistics.clear();
+        statementCounter.reset();
+        budgetService.getBudget(YEAR, 3);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(0, statementCounter.count());
+    }
+}
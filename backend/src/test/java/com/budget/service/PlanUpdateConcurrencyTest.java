@@ -0,0 +1,96 @@
+package com.budget.service;
+
+import com.budget.dto.BudgetDTO;
+import com.budget.dto.CreatePlanRequest;
+import com.budget.dto.PlanDTO;
+import com.budget.dto.PlanItemDTO;
+import com.budget.dto.UpdatePlanRequest;
+import com.budget.repository.BudgetItemRepository;
+import com.budget.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanUpdateConcurrencyTest extends PostgresIntegrationTest {
+
+    private static final int YEAR = 2093;
+    private static final int WRITERS = 8;
+
+    @Autowired BudgetService budgetService;
+    @Autowired PlanService planService;
+    @Autowired BudgetItemRepository budgetItemRepository;
+
+    @Test
+    void concurrentUpdatesLeaveOneWritersItemsAndTheirTotal() throws Exception {
+        BudgetDTO budget = budgetService.getOrCreateBudget(YEAR, 1);
+        Long budgetItemId = budget.getSections().get(0).getItems().get(0).getId();
+        CreatePlanRequest createRequest = new CreatePlanRequest();
+        createRequest.setBudgetItemId(budgetItemId);
+        createRequest.setYear(YEAR);
+        createRequest.setMonth(1);
+        Long planId = planService.createPlan(createRequest).getId();
+
+        AtomicInteger succeeded = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(WRITERS);
+        for (int w = 0; w < WRITERS; w++) {
+            UpdatePlanRequest request = planWithItems("w" + w, w + 1);
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    planService.updatePlan(planId, request);
+                    succeeded.incrementAndGet();
+                } catch (OptimisticLockingFailureException e) {
+                    // Out of retries: surfaced as 409, and nothing of it was committed
+                } catch (Throwable t) {
+                    failures.add(t);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(1, TimeUnit.MINUTES), "writers did not finish");
+        executor.shutdown();
+        assertTrue(failures.isEmpty(), () -> "unexpected failures: " + failures);
+        assertTrue(succeeded.get() > 0, "no update committed");
+
+        // The plan holds exactly one writer's items, and the item's planned amount is their total
+        PlanDTO plan = planService.getPlan(planId);
+        String writer = plan.getItems().get(0).getName().split("-")[0];
+        assertTrue(plan.getItems().stream().allMatch(i -> i.getName().startsWith(writer + "-")),
+                () -> "items from more than one update: " + plan.getItems());
+        assertEquals(Integer.parseInt(writer.substring(1)) + 1, plan.getItems().size());
+        BigDecimal total = plan.getItems().stream().map(PlanItemDTO::getAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal planned = budgetItemRepository.findById(budgetItemId).orElseThrow().getPlannedAmount();
+        assertEquals(0, total.compareTo(planned), () -> "planned " + planned + " against items totalling " + total);
+    }
+
+    private static UpdatePlanRequest planWithItems(String writer, int count) {
+        List<UpdatePlanRequest.PlanItemInput> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UpdatePlanRequest.PlanItemInput input = new UpdatePlanRequest.PlanItemInput();
+            input.setName(writer + "-" + i);
+            input.setAmount(BigDecimal.valueOf(10 + i));
+            items.add(input);
+        }
+        UpdatePlanRequest request = new UpdatePlanRequest();
+        request.setItems(items);
+        return request;
+    }
+}
@@ -0,0 +1,208 @@
+package com.budget.service;
+
+import com.budget.dto.AccountDepositRequest;
+import com.budget.dto.CreateSavingsAccountRequest;
+import com.budget.dto.CreateSavingsFundRequest;
+import com.budget.dto.LogDepositRequest;
+import com.budget.dto.LogWithdrawalRequest;
+import com.budget.dto.ReallocateRequest;
+import com.budget.dto.SavingsSummaryDTO;
+import com.budget.dto.UpdateSavingsEventRequest;
+import com.budget.model.FundGoalType;
+import com.budget.repository.SavingsEventRepository;
+import com.budget.support.PostgresIntegrationTest;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Hammers the pool check from many connections at once. Deposits draw on UNALLOCATED and race each
+// other; account deposits grow it meanwhile; withdrawals and reallocations only lock fund rows.
+@Slf4j
+class SavingsPoolStressTest extends PostgresIntegrationTest {
+
+    private static final int WRITERS = 32;
+    private static final int OPS_PER_WRITER = 50;
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired SavingsAccountService savingsAccountService;
+    @Autowired SavingsFundService savingsFundService;
+    @Autowired SavingsEventService savingsEventService;
+    @Autowired LedgerService ledgerService;
+    @Autowired SavingsEventRepository savingsEventRepository;
+
+    @Test
+    void concurrentWritersNeverAllocateMoreThanTheAccountsHold() throws Exception {
+        Long accountId = createAccount("Stress account");
+        List<Long> fundIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            fundIds.add(createFund("Stress fund " + i));
+        }
+
+        // Cents moved by the operations that succeeded
+        LongAdder allocated = new LongAdder();
+        LongAdder spent = new LongAdder();
+        LongAdder deposited = new LongAdder();
+        AtomicInteger rejected = new AtomicInteger();
+
+        long started = System.nanoTime();
+        runConcurrently(WRITERS, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int op = 0; op < OPS_PER_WRITER; op++) {
+                BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 60));
+                Long fundId = fundIds.get(random.nextInt(fundIds.size()));
+                try {
+                    switch (random.nextInt(4)) {
+                        case 0 -> {
+                            LogDepositRequest request = new LogDepositRequest();
+                            request.setAmount(amount);
+                            request.setEventDate(LocalDate.now());
+                            request.setTargetFundId(fundId);
+                            savingsEventService.logDeposit(request);
+                            allocated.add(cents(amount));
+                        }
+                        case 1 -> {
+                            LogWithdrawalRequest request = new LogWithdrawalRequest();
+                            request.setAmount(amount);
+                            request.setEventDate(LocalDate.now());
+                            request.setFundId(fundId);
+                            savingsEventService.logWithdrawal(request);
+                            spent.add(cents(amount));
+                        }
+                        case 2 -> {
+                            Long otherId = fundIds.get(random.nextInt(fundIds.size()));
+                            if (otherId.equals(fundId)) {
+                                continue;
+                            }
+                            ReallocateRequest request = new ReallocateRequest();
+                            request.setSourceFundId(fundId);
+                            request.setDestinationFundId(otherId);
+                            request.setAmount(amount);
+                            savingsEventService.reallocate(request);
+                        }
+                        default -> {
+                            AccountDepositRequest request = new AccountDepositRequest();
+                            request.setAmount(amount);
+                            request.setEventDate(LocalDate.now());
+                            savingsAccountService.logDeposit(accountId, request);
+                            deposited.add(cents(amount));
+                        }
+                    }
+                } catch (IllegalStateException e) {
+                    // Pool exhausted or fund short: the check doing its job
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        int operations = WRITERS * OPS_PER_WRITER;
+        log.info("Savings pool stress: {} writers, {} ops ({} rejected) in {} ms, {} ops/s",
+                WRITERS, operations, rejected.get(), millis, operations * 1000L / Math.max(millis, 1));
+
+        // Σ active funds <= Σ active accounts, both as the summary reports it and in the ledger
+        SavingsSummaryDTO summary = savingsFundService.getYearSummary();
+        BigDecimal fundTotal = summary.getTotalAllocated().add(summary.getTotalUnallocated());
+        assertTrue(fundTotal.compareTo(summary.getTotalPool()) <= 0,
+                () -> "funds " + fundTotal + " exceed pool " + summary.getTotalPool());
+        BigDecimal unallocated = ledgerService.getUnallocated();
+        assertTrue(unallocated.signum() >= 0, () -> "unallocated went negative: " + unallocated);
+        assertEquals(0, summary.getTotalPool().subtract(fundTotal).compareTo(unallocated),
+                () -> "pool " + summary.getTotalPool() + " minus funds " + fundTotal + " against unallocated " + unallocated);
+
+        // Nothing lost or duplicated under contention
+        long ourFunds = ledgerService.getFundBalances(fundIds).values().stream()
+                .mapToLong(SavingsPoolStressTest::cents)
+                .sum();
+        assertEquals(allocated.sum() - spent.sum(), ourFunds, "fund balances against successful operations");
+        assertEquals(cents(OPENING_BALANCE) + deposited.sum(), cents(ledgerService.getAccountBalance(accountId)),
+                "account balance against successful deposits");
+        assertTrue(ledgerService.verify().isConsistent(), "ledger replay disagrees with its balances");
+    }
+
+    @Test
+    void concurrentEditsOfOneDepositKeepTheFundInStepWithTheEvent() throws Exception {
+        createAccount("Edit account");
+        Long fundId = createFund("Edit fund");
+        LogDepositRequest deposit = new LogDepositRequest();
+        deposit.setAmount(new BigDecimal("10"));
+        deposit.setEventDate(LocalDate.now());
+        deposit.setTargetFundId(fundId);
+        Long eventId = savingsEventService.logDeposit(deposit).getId();
+
+        runConcurrently(16, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            for (int op = 0; op < 20; op++) {
+                UpdateSavingsEventRequest request = new UpdateSavingsEventRequest();
+                request.setAmount(BigDecimal.valueOf(random.nextInt(1, 50)));
+                request.setEventDate(LocalDate.now());
+                savingsEventService.updateEvent(eventId, request);
+            }
+        });
+
+        // Each edit swaps the previous amount for its own, so the fund ends at the last one
+        BigDecimal finalAmount = savingsEventRepository.findById(eventId).orElseThrow().getAmount();
+        assertEquals(0, finalAmount.compareTo(ledgerService.getFundBalance(fundId)),
+                "fund balance against the committed event amount " + finalAmount);
+    }
+
+    private Long createAccount(String name) {
+        CreateSavingsAccountRequest request = new CreateSavingsAccountRequest();
+        request.setName(name);
+        request.setBalance(OPENING_BALANCE);
+        request.setAsOfDate(LocalDate.now());
+        return savingsAccountService.createAccount(request).getId();
+    }
+
+    private Long createFund(String name) {
+        CreateSavingsFundRequest request = new CreateSavingsFundRequest();
+        request.setName(name);
+        request.setGoalType(FundGoalType.NO_GOAL);
+        return savingsFundService.createFund(request).getId();
+    }
+
+    private static void runConcurrently(int writers, ThrowingRunnable work) throws InterruptedException {
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(writers);
+        for (int w = 0; w < writers; w++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    work.run();
+                } catch (Throwable t) {
+                    failures.add(t);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(5, TimeUnit.MINUTES), "writers did not finish");
+        executor.shutdown();
+        assertTrue(failures.isEmpty(), () -> "unexpected failures: " + failures);
+    }
+
+    private static long cents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,64 @@
+package com.budget.service;
+
+import com.budget.dto.*;
+import com.budget.model.TransactionType;
+import com.budget.support.PostgresIntegrationTest;
+import com.budget.support.StatementCounter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionPageStatementCountTest extends PostgresIntegrationTest {
+
+    private static final int YEAR = 2091;
+
+    @Autowired BudgetService budgetService;
+    @Autowired SectionService sectionService;
+    @Autowired BudgetItemService budgetItemService;
+    @Autowired TransactionService transactionService;
+    @Autowired StatementCounter statementCounter;
+
+    @Test
+    void pageOfHundredRowsCostsOneSelectAndOneCount() {
+        BudgetDTO budget = budgetService.getOrCreateBudget(YEAR, 1);
+        CreateSectionRequest sectionRequest = new CreateSectionRequest();
+        sectionRequest.setBudgetId(budget.getId());
+        sectionRequest.setName("Groceries");
+        SectionDTO section = sectionService.createSection(sectionRequest);
+        CreateItemRequest itemRequest = new CreateItemRequest();
+        itemRequest.setSectionId(section.getId());
+        itemRequest.setName("Supermarket");
+        BudgetItemDTO item = budgetItemService.createItem(itemRequest);
+
+        for (int i = 0; i < 150; i++) {
+            CreateTransactionRequest request = new CreateTransactionRequest();
+            request.setSectionId(section.getId());
+            request.setBudgetItemId(item.getId());
+            request.setType(TransactionType.EXPENSE);
+            request.setTransactionDate(LocalDate.of(YEAR, 1, 1 + i % 28));
+            request.setMerchant("Store " + i);
+            request.setAmount(new BigDecimal("12.34"));
+            transactionService.createTransaction(request);
+        }
+
+        TransactionFilter filter = new TransactionFilter();
+        filter.setStartDate(LocalDate.of(YEAR, 1, 1));
+        filter.setEndDate(LocalDate.of(YEAR, 12, 31));
+
+        statementCounter.reset();
+        Page<TransactionDTO> page = transactionService.getTransactions(filter, 0, 100);
+        long statements = statementCounter.count();
+
+        assertEquals(100, page.getContent().size());
+        assertEquals(150, page.getTotalElements());
+        // Section and item names come from the joined row, not lazy loads
+        assertTrue(page.getContent().stream().allMatch(t ->
+                "Groceries".equals(t.getSectionName()) && "Supermarket".equals(t.getBudgetItemName())));
+        assertEquals(2, statements, "one page SELECT plus one COUNT");
+    }
+}
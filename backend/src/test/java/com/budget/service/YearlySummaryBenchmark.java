@@ -0,0 +1,148 @@
+package com.budget.service;
+
+import com.budget.BudgetApplication;
+import com.budget.dto.BudgetDTO;
+import com.budget.dto.BudgetItemDTO;
+import com.budget.dto.CreateTransactionRequest;
+import com.budget.model.Budget;
+import com.budget.model.BudgetItem;
+import com.budget.model.Section;
+import com.budget.model.TransactionType;
+import com.budget.repository.BudgetItemActualsRepository;
+import com.budget.repository.BudgetRepository;
+import com.budget.repository.SectionRepository;
+import com.budget.support.StatementCounter;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// getYearlySummary (one grouped query) against the per-month tree loads it replaced, over a year
+// of default-layout months with 50 transactions each. Needs Docker.
+// Run with: mvn -Pjmh test-compile exec:exec -Djmh.args="YearlySummary"
+@Slf4j
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class YearlySummaryBenchmark {
+
+    private static final int YEAR = 2024;
+    private static final int TRANSACTIONS_PER_MONTH = 50;
+
+    private PostgreSQLContainer<?> postgres;
+    private ConfigurableApplicationContext context;
+    private BudgetService budgetService;
+    private BudgetRepository budgetRepository;
+    private SectionRepository sectionRepository;
+    private BudgetItemActualsRepository budgetItemActualsRepository;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup
+    public void setUp() {
+        postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+        postgres.start();
+        context = new SpringApplicationBuilder(BudgetApplication.class, StatementCounter.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword())
+                .run();
+        budgetService = context.getBean(BudgetService.class);
+        budgetRepository = context.getBean(BudgetRepository.class);
+        sectionRepository = context.getBean(SectionRepository.class);
+        budgetItemActualsRepository = context.getBean(BudgetItemActualsRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        seed(context.getBean(TransactionService.class));
+
+        StatementCounter counter = context.getBean(StatementCounter.class);
+        long grouped = countStatements(counter, () -> budgetService.getYearlySummary(YEAR));
+        long perMonth = countStatements(counter, this::loadMonthTrees);
+        log.info("Yearly summary statements: grouped query {}, per-month trees {}", grouped, perMonth);
+        if (grouped != 1) {
+            throw new IllegalStateException("getYearlySummary ran " + grouped + " statements, expected 1");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public Object yearlySummary() {
+        return budgetService.getYearlySummary(YEAR);
+    }
+
+    @Benchmark
+    public void perMonthTrees(Blackhole blackhole) {
+        blackhole.consume(loadMonthTrees());
+    }
+
+    private void seed(TransactionService transactionService) {
+        Random random = new Random(42);
+        for (int month = 1; month <= 12; month++) {
+            BudgetDTO budget = budgetService.getOrCreateBudget(YEAR, month);
+            List<BudgetItemDTO> items = budget.getSections().stream()
+                    .flatMap(section -> section.getItems().stream())
+                    .toList();
+            for (int i = 0; i < TRANSACTIONS_PER_MONTH; i++) {
+                BudgetItemDTO item = items.get(random.nextInt(items.size()));
+                CreateTransactionRequest request = new CreateTransactionRequest();
+                request.setBudgetItemId(item.getId());
+                request.setType(random.nextInt(5) == 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+                request.setTransactionDate(LocalDate.of(YEAR, month, 1 + random.nextInt(28)));
+                request.setMerchant("Merchant " + i);
+                request.setAmount(BigDecimal.valueOf(100 + random.nextInt(50_000), 2));
+                transactionService.createTransaction(request);
+            }
+        }
+    }
+
+    // What getYearlySummary did before: each month reloaded as a full tree with its actuals, only
+    // to read four totals
+    private List<BudgetDTO> loadMonthTrees() {
+        return readOnlyTransaction.execute(status -> budgetRepository.findByYearOrderByMonthAsc(YEAR).stream()
+                .map(this::loadMonthTree)
+                .toList());
+    }
+
+    private BudgetDTO loadMonthTree(Budget month) {
+        Budget budget = budgetRepository.findByYearAndMonthWithSections(YEAR, month.getMonth()).orElse(month);
+        sectionRepository.findByBudgetIdWithItems(budget.getId());
+        Map<Long, BigDecimal> actuals = budgetItemActualsRepository.findAmountsByYearAndMonth(YEAR, month.getMonth());
+        for (Section section : budget.getSections()) {
+            for (BudgetItem item : section.getItems()) {
+                BigDecimal amount = actuals.getOrDefault(item.getId(), BigDecimal.ZERO);
+                item.setActualAmount(section.getIsIncome() ? amount : amount.negate());
+            }
+        }
+        return BudgetDTO.fromEntity(budget);
+    }
+
+    private static long countStatements(StatementCounter counter, Supplier<?> work) {
+        counter.reset();
+        work.get();
+        return counter.count();
+    }
+}
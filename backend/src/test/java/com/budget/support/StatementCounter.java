@@ -0,0 +1,72 @@
+package com.budget.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Set;
+
+// Wraps the application DataSource and counts the JDBC statements prepared on the calling thread,
+// whether they come from Hibernate or JdbcTemplate. Counting per thread keeps background work
+// (pool housekeeping, other tests' workers) out of the numbers.
+public class StatementCounter implements BeanPostProcessor {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("createStatement", "prepareStatement", "prepareCall");
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    public void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public long count() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                return "getConnection".equals(method.getName())
+                        ? proxy(Connection.class, (Connection) result, StatementCounter::countStatements)
+                        : result;
+            });
+        }
+        return bean;
+    }
+
+    private static Object countStatements(Object target, Method method, Object[] args) throws Exception {
+        if (STATEMENT_FACTORIES.contains(method.getName())) {
+            COUNT.get()[0]++;
+        }
+        return method.invoke(target, args);
+    }
+
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, Handler handler) {
+        InvocationHandler invocation = (proxy, method, args) -> {
+            // Identity semantics, so the proxy works as a transaction-synchronization key
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    try {
+                        return handler.handle(target, method, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, invocation);
+    }
+}
@@ -18,9 +18,23 @@ export const budgetApi = {
     return api.get(`/budgets/${year}`)
   },
 
-  createBudget(year, month) {
+  // from/to as 'YYYY-MM'; breakdown: 'section' or omitted
+  getRangeSummary(from, to, breakdown = null) {
+    return api.get('/budgets/summary', {
+      params: breakdown ? { from, to, breakdown } : { from, to }
+    })
+  },
+
+  // copyFrom: optional 'YYYY-MM' month to clone instead of the default layout
+  createBudget(year, month, copyFrom = null) {
     return api.post('/budgets', null, {
-      params: { year, month }
+      params: copyFrom ? { year, month, copyFrom } : { year, month }
+    })
+  },
+
+  createYear(year, copyFrom = null) {
+    return api.post(`/budgets/${year}`, null, {
+      params: copyFrom ? { copyFrom } : {}
     })
   }
 }
@@ -62,6 +76,14 @@ export const transactionApi = {
     return api.get(`/transactions/${id}`)
   },
 
+  recategorize(data) {
+    return api.post('/transactions/recategorize', data)
+  },
+
+  exportTransactions(params = {}) {
+    return api.get('/transactions/export', { params, responseType: 'blob' })
+  },
+
   create(data) {
     return api.post('/transactions', data)
   },
@@ -76,6 +98,32 @@ export const transactionApi = {
 
   import(data) {
     return api.post('/transactions/import', data).then(res => res.data)
+  },
+
+  importFile(file, options) {
+    const form = new FormData()
+    form.append('file', file)
+    form.append('options', new Blob([JSON.stringify(options)], { type: 'application/json' }))
+    return api.post('/transactions/import/stream', form, {
+      headers: { 'Content-Type': 'multipart/form-data' }
+    }).then(res => res.data)
+  },
+
+  submitImportJob(file, options) {
+    const form = new FormData()
+    form.append('file', file)
+    form.append('options', new Blob([JSON.stringify(options)], { type: 'application/json' }))
+    return api.post('/transactions/import/jobs', form, {
+      headers: { 'Content-Type': 'multipart/form-data' }
+    }).then(res => res.data)
+  },
+
+  getImportJob(jobId) {
+    return api.get(`/transactions/import/${jobId}`).then(res => res.data)
+  },
+
+  cancelImportJob(jobId) {
+    return api.delete(`/transactions/import/${jobId}`).then(res => res.data)
   }
 }
 
@@ -178,7 +226,11 @@ export const savingsApi = {
   reallocate(data) { return api.post('/savings/events/reallocate', data) },
   processPayout(fundId) { return api.post(`/savings/events/payout/${fundId}`) },
   updateEvent(id, data) { return api.put(`/savings/events/${id}`, data) },
-  deleteEvent(id) { return api.delete(`/savings/events/${id}`) }
+  deleteEvent(id) { return api.delete(`/savings/events/${id}`) },
+
+  // Ledger
+  getLedgerBalance(type, ref) { return api.get('/savings/ledger/balance', { params: { type, ref } }) },
+  verifyLedger() { return api.post('/savings/ledger/verify') }
 }
 
 export default api
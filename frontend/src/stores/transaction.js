@@ -9,8 +9,8 @@ export const useTransactionStore = defineStore('transaction', () => {
   const pagination = ref({
     page: 0,
     size: 20,
-    totalElements: 0,
-    totalPages: 0
+    totalElements: null,
+    hasNext: false
   })
   const filters = ref({
     startDate: null,
@@ -23,7 +23,7 @@ export const useTransactionStore = defineStore('transaction', () => {
     merchant: ''
   })
 
-  const hasMore = computed(() => pagination.value.page < pagination.value.totalPages - 1)
+  const hasMore = computed(() => pagination.value.hasNext)
 
   async function fetchTransactions(resetList = true) {
     loading.value = true
@@ -32,6 +32,8 @@ export const useTransactionStore = defineStore('transaction', () => {
       const params = {
         page: resetList ? 0 : pagination.value.page,
         size: pagination.value.size,
+        // The list only needs "load more", so skip the server-side COUNT(*)
+        count: 'NONE',
         ...filters.value
       }
       // Remove null/empty params
@@ -51,7 +53,7 @@ export const useTransactionStore = defineStore('transaction', () => {
         page: response.data.number,
         size: response.data.size,
         totalElements: response.data.totalElements,
-        totalPages: response.data.totalPages
+        hasNext: response.data.hasNext
       }
     } catch (e) {
       error.value = 'Unable to load transactions. Please try again later.'
@@ -91,7 +93,6 @@ export const useTransactionStore = defineStore('transaction', () => {
     try {
       const response = await transactionApi.create(data)
       transactions.value.unshift(response.data)
-      pagination.value.totalElements++
       return response.data
     } catch (e) {
       error.value = e.response?.data?.error || e.message
@@ -117,7 +118,6 @@ export const useTransactionStore = defineStore('transaction', () => {
     try {
       await transactionApi.delete(id)
       transactions.value = transactions.value.filter(t => t.id !== id)
-      pagination.value.totalElements--
     } catch (e) {
       error.value = e.response?.data?.error || e.message
       throw e